@@ -0,0 +1,131 @@
+package Modele;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Mesures de performance sur des colonies générées par {@link GenerateurColonie}.
+ * <p>
+ * Chaque mesure est d'abord exécutée pendant une phase de chauffe (compilation JIT), puis répétée
+ * jusqu'à une durée minimale ; on affiche le temps moyen et le meilleur temps par opération.
+ * Les résultats sont consommés par {@link #puits} pour que le compilateur ne supprime pas le travail mesuré.
+ * <p>
+ * Usage : {@code BancEssai [tailles séparées par des virgules] [degreMoyen] [forme] [correlation]},
+ * par défaut {@code 100,1000,3000 4 aleatoire 0.5}. Une taille dont l'instance ne tient pas dans le tas
+ * est ignorée (voir {@link GenerateurColonie#memoireInstance}).
+ */
+public class BancEssai {
+    private static final long CHAUFFE_MS = 1000;
+    private static final long MESURE_MS = 2000;
+    private static final int REPETITIONS_MIN = 5;
+
+    /**
+     * Puits des résultats, lu à la fin pour que rien ne soit éliminé.
+     */
+    private static long puits;
+
+    private interface Operation {
+        long executer() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] tailles = (args.length > 0 ? args[0] : "100,1000,3000").split(",");
+        double degreMoyen = args.length > 1 ? Double.parseDouble(args[1]) : 4;
+        GenerateurColonie.Forme forme = args.length > 2
+                ? GenerateurColonie.Forme.valueOf(args[2].toUpperCase(Locale.ROOT)) : GenerateurColonie.Forme.ALEATOIRE;
+        double correlation = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+
+        System.out.printf("%-28s %8s %14s %14s%n", "mesure", "n", "moyenne (ms)", "meilleur (ms)");
+        for (String t : tailles) {
+            int n = Integer.parseInt(t.trim());
+            GenerateurColonie generateur = new GenerateurColonie(n, degreMoyen, forme, correlation, 42);
+            Instance instance;
+            try {
+                instance = generateur.generer();
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + " Taille ignorée.");
+                continue;
+            }
+            File texte = File.createTempFile("colonie", ".txt");
+            File binaire = File.createTempFile("colonie", ".bin");
+            texte.deleteOnExit();
+            binaire.deleteOnExit();
+            generateur.ecrire(texte.getPath());
+            FormatBinaire.ecrireInstance(instance, binaire.getPath());
+            mesurer(instance, n, texte.getPath(), binaire.getPath());
+            texte.delete();
+            binaire.delete();
+        }
+        System.out.println("(puits : " + puits + ")");
+    }
+
+    private static void mesurer(Instance instance, int n, String texte, String binaire) throws Exception {
+        Affectation gloutonne = Affectation.gloutonne(instance, null);
+        EvaluateurCout evaluateur = new EvaluateurCout(instance, gloutonne);
+        SplittableRandom aleatoire = new SplittableRandom(7);
+        int[][] rang = instance.matriceRangs();
+        int[] debut = instance.getConflits().debuts();
+        int[] voisins = instance.getConflits().voisins();
+        int[] ressourceDe = gloutonne.ressources();
+
+        // Équivalent de calculerCoutSolution : recomptage complet des colons jaloux
+        mesurer("cout complet", n, () -> new EvaluateurCout(instance, gloutonne).cout());
+        // Test de jalousie recalculé colon par colon, comme le faisait estJaloux de Colonie : parcours des voisins
+        // (l'EvaluateurCout, lui, tient cet état à jour et ne fait qu'une lecture de tableau)
+        mesurer("estJaloux (tous les colons)", n, () -> {
+            long jaloux = 0;
+            for (int c = 0; c < n; c++) {
+                int[] rangColon = rang[c];
+                int rangActuel = rangColon[ressourceDe[c]];
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    if (rangColon[ressourceDe[voisins[i]]] < rangActuel) {
+                        jaloux++;
+                        break;
+                    }
+                }
+            }
+            return jaloux;
+        });
+        mesurer("deltaEchange (x10000)", n, () -> {
+            long somme = 0;
+            for (int i = 0; i < 10_000; i++) {
+                somme += evaluateur.variationEchange(aleatoire.nextInt(n), aleatoire.nextInt(n));
+            }
+            return somme;
+        });
+        // Équivalent de resolutionGloutonne : affectation gloutonne puis première amélioration
+        mesurer("resolution gloutonne", n, () -> {
+            EvaluateurCout e = new EvaluateurCout(instance, Affectation.gloutonne(instance, null));
+            new RecherchePremiereAmelioration().ameliorer(e);
+            return e.cout();
+        });
+        // Équivalent de lireFichier, pour les deux formats
+        mesurer("lecture texte", n, () -> new LecteurColonie().lire(texte).nombreColons());
+        mesurer("lecture binaire", n, () -> FormatBinaire.lireInstance(binaire).nombreColons());
+    }
+
+    private static void mesurer(String nom, int n, Operation operation) throws Exception {
+        long finChauffe = System.nanoTime() + CHAUFFE_MS * 1_000_000;
+        do {
+            puits += operation.executer();
+        } while (System.nanoTime() < finChauffe);
+
+        int repetitions = 0;
+        long total = 0;
+        long meilleur = Long.MAX_VALUE;
+        long finMesure = System.nanoTime() + MESURE_MS * 1_000_000;
+        while (repetitions < REPETITIONS_MIN || System.nanoTime() < finMesure) {
+            long debut = System.nanoTime();
+            puits += operation.executer();
+            long duree = System.nanoTime() - debut;
+            total += duree;
+            meilleur = Math.min(meilleur, duree);
+            repetitions++;
+        }
+        System.out.printf("%-28s %8d %14.3f %14.3f%n", nom, n, total / 1e6 / repetitions, meilleur / 1e6);
+    }
+
+    private BancEssai() {
+    }
+}
@@ -0,0 +1,169 @@
+package Modele;
+
+import java.util.Arrays;
+
+/**
+ * Affectation complète des ressources aux colons, représentée par une permutation et son inverse.
+ * Les échanges se font sur place et sont inscrits dans un journal permettant de les annuler ;
+ * une copie n'est produite qu'à la demande ({@link #instantane()}).
+ */
+public class Affectation {
+    private final int[] ressourceDe;
+    private final int[] colonDe;
+
+    /**
+     * Journal des échanges effectués, par paires de colons.
+     */
+    private int[] journal = new int[64];
+    private int tailleJournal;
+
+    /**
+     * @param ressourceDe ressource de chaque colon, formant une permutation de 0..n-1 ; le tableau est copié.
+     */
+    public Affectation(int[] ressourceDe) {
+        this.ressourceDe = ressourceDe.clone();
+        this.colonDe = new int[ressourceDe.length];
+        Arrays.fill(colonDe, -1);
+        for (int c = 0; c < ressourceDe.length; c++) {
+            int r = ressourceDe[c];
+            if (r < 0 || r >= colonDe.length || colonDe[r] != -1) {
+                throw new IllegalArgumentException("L'affectation n'est pas une permutation (ressource " + r + ").");
+            }
+            colonDe[r] = c;
+        }
+    }
+
+    /**
+     * Construit l'affectation gloutonne : chaque colon, dans l'ordre donné, prend sa ressource préférée encore libre.
+     *
+     * @param ordre ordre de passage des colons, ou {@code null} pour l'ordre de déclaration.
+     */
+    public static Affectation gloutonne(Instance instance, int[] ordre) {
+        int[][] prefs = instance.matricePreferences();
+        int n = instance.nombreColons();
+        boolean[] attribuee = new boolean[n];
+        int[] ressourceDe = new int[n];
+        for (int i = 0; i < n; i++) {
+            int c = ordre == null ? i : ordre[i];
+            for (int r : prefs[c]) {
+                if (!attribuee[r]) {
+                    ressourceDe[c] = r;
+                    attribuee[r] = true;
+                    break;
+                }
+            }
+        }
+        return new Affectation(ressourceDe);
+    }
+
+    public int taille() {
+        return ressourceDe.length;
+    }
+
+    public int ressourceDe(int colon) {
+        return ressourceDe[colon];
+    }
+
+    public int colonDe(int ressource) {
+        return colonDe[ressource];
+    }
+
+    /**
+     * Tableau interne des ressources par colon, pour les boucles critiques ; ne pas modifier.
+     */
+    int[] ressources() {
+        return ressourceDe;
+    }
+
+    /**
+     * Échange les ressources de deux colons et inscrit l'échange dans le journal.
+     */
+    public void echanger(int a, int b) {
+        permuter(a, b);
+        if (tailleJournal + 2 > journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        journal[tailleJournal++] = a;
+        journal[tailleJournal++] = b;
+    }
+
+    /**
+     * @return la position courante du journal, à passer à {@link #annulerJusqua(int)}.
+     */
+    public int marque() {
+        return tailleJournal;
+    }
+
+    /**
+     * Annule les échanges inscrits après la marque donnée.
+     */
+    public void annulerJusqua(int marque) {
+        while (tailleJournal > marque) {
+            annulerDernier();
+        }
+    }
+
+    /**
+     * Annule le dernier échange du journal.
+     */
+    public void annulerDernier() {
+        int b = journal[--tailleJournal];
+        int a = journal[--tailleJournal];
+        permuter(a, b);
+    }
+
+    /**
+     * Premier colon du dernier échange journalisé.
+     */
+    public int dernierColonA() {
+        return journal[tailleJournal - 2];
+    }
+
+    /**
+     * Second colon du dernier échange journalisé.
+     */
+    public int dernierColonB() {
+        return journal[tailleJournal - 1];
+    }
+
+    /**
+     * Oublie les échanges journalisés : ils ne pourront plus être annulés.
+     */
+    public void validerJournal() {
+        tailleJournal = 0;
+    }
+
+    /**
+     * @return une copie des ressources par colon.
+     */
+    public int[] instantane() {
+        return ressourceDe.clone();
+    }
+
+    /**
+     * Copie les ressources par colon dans un tableau existant, sans allocation.
+     */
+    public void copierDans(int[] destination) {
+        System.arraycopy(ressourceDe, 0, destination, 0, ressourceDe.length);
+    }
+
+    /**
+     * Remplace l'affectation par une copie précédemment prise ; le journal est vidé.
+     */
+    public void restaurer(int[] instantane) {
+        System.arraycopy(instantane, 0, ressourceDe, 0, ressourceDe.length);
+        for (int c = 0; c < ressourceDe.length; c++) {
+            colonDe[ressourceDe[c]] = c;
+        }
+        tailleJournal = 0;
+    }
+
+    private void permuter(int a, int b) {
+        int ra = ressourceDe[a];
+        int rb = ressourceDe[b];
+        ressourceDe[a] = rb;
+        ressourceDe[b] = ra;
+        colonDe[rb] = a;
+        colonDe[ra] = b;
+    }
+}
@@ -0,0 +1,64 @@
+package Modele;
+
+import java.util.Arrays;
+
+/**
+ * Borne inférieure du coût (nombre de colons jaloux) de toute affectation d'une instance.
+ * <p>
+ * Deux colons en conflit dont les listes de préférences sont identiques ne peuvent pas être satisfaits
+ * tous les deux : celui qui reçoit la ressource la moins bien classée envie l'autre. Plus généralement,
+ * dans une clique de k tels colons, seul celui qui reçoit la meilleure ressource de la clique échappe
+ * à la jalousie. À l'inverse, deux colons en conflit dont les listes diffèrent peuvent toujours être
+ * satisfaits ensemble (chacun prend celle de deux ressources qu'il classe mieux que l'autre), si bien que
+ * ces cliques sont les seules contraintes forcées visibles paire par paire.
+ * <p>
+ * La borne somme k-1 sur des cliques disjointes de colons identiques, construites gloutonnement : chaque
+ * clique demande k-1 colons jaloux distincts, quelle que soit l'affectation. Elle se calcule en
+ * O(n² + m) (une empreinte par liste de préférences, puis un passage sur les arêtes).
+ */
+public final class BorneInferieure {
+
+    private BorneInferieure() {
+    }
+
+    /**
+     * @return un nombre de colons jaloux que toute affectation de l'instance atteint au moins.
+     */
+    public static int calculer(Instance instance) {
+        int n = instance.nombreColons();
+        int[][] preferences = instance.matricePreferences();
+        GrapheConflits graphe = instance.getConflits();
+        int[] debut = graphe.debuts();
+        int[] voisins = graphe.voisins();
+
+        int[] empreinte = new int[n];
+        for (int c = 0; c < n; c++) {
+            if (debut[c + 1] > debut[c]) empreinte[c] = Arrays.hashCode(preferences[c]);
+        }
+
+        boolean[] utilise = new boolean[n];
+        int[] clique = new int[n];
+        int borne = 0;
+        for (int c = 0; c < n; c++) {
+            if (utilise[c]) continue;
+            int taille = 0;
+            clique[taille++] = c;
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                int v = voisins[i];
+                if (utilise[v] || empreinte[v] != empreinte[c]
+                        || !Arrays.equals(preferences[v], preferences[c])) continue;
+                // Les listes identiques forment une classe : il suffit de vérifier les conflits
+                boolean relie = true;
+                for (int k = 1; k < taille && relie; k++) {
+                    relie = graphe.sontVoisins(v, clique[k]);
+                }
+                if (relie) clique[taille++] = v;
+            }
+            if (taille > 1) {
+                for (int k = 0; k < taille; k++) utilise[clique[k]] = true;
+                borne += taille - 1;
+            }
+        }
+        return borne;
+    }
+}
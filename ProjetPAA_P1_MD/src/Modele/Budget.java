@@ -0,0 +1,177 @@
+package Modele;
+
+/**
+ * Budget d'une recherche : durée maximale et/ou nombre maximal d'itérations, plus un arrêt
+ * demandé de l'extérieur (depuis un autre thread). L'horloge n'est consultée qu'une itération
+ * sur 1024 pour rester négligeable dans les boucles de recherche.
+ * Un budget peut dépendre d'un budget parent : il est alors aussi épuisé quand le parent
+ * est arrêté ou que sa durée est écoulée.
+ * <p>
+ * Le budget porte aussi un objectif : un coût en dessous duquel il est inutile de chercher
+ * (0 par défaut, ou une {@link BorneInferieure}). Les recherches s'arrêtent dès qu'elles l'atteignent.
+ * Enfin, un {@link SuiviResolution} peut y être attaché : les recherches y signalent leurs améliorations
+ * et leurs itérations (celles comptées par {@link #epuise}, par paquets de 1024).
+ */
+public class Budget {
+    private final Budget parent;
+    private final long dureeMaxNanos;
+    private final long iterationsMax;
+    private final long debut;
+    private volatile boolean arrete;
+    private volatile boolean termine;
+    private volatile int objectif;
+    private volatile SuiviResolution suivi;
+
+    /**
+     * @param dureeMaxMillis durée maximale en millisecondes (0 ou moins : illimitée).
+     * @param iterationsMax  nombre maximal d'itérations (0 ou moins : illimité).
+     */
+    public Budget(long dureeMaxMillis, long iterationsMax) {
+        this(null, dureeMaxMillis, iterationsMax);
+    }
+
+    /**
+     * @param parent         budget englobant dont l'arrêt et la durée s'appliquent aussi ({@code null} : aucun).
+     * @param dureeMaxMillis durée maximale en millisecondes (0 ou moins : illimitée).
+     * @param iterationsMax  nombre maximal d'itérations (0 ou moins : illimité).
+     */
+    public Budget(Budget parent, long dureeMaxMillis, long iterationsMax) {
+        this.parent = parent;
+        this.dureeMaxNanos = dureeMaxMillis > 0 ? dureeMaxMillis * 1_000_000L : 0;
+        this.iterationsMax = iterationsMax;
+        this.debut = System.nanoTime();
+    }
+
+    public static Budget duree(long dureeMaxMillis) {
+        return new Budget(dureeMaxMillis, 0);
+    }
+
+    public static Budget iterations(long iterationsMax) {
+        return new Budget(0, iterationsMax);
+    }
+
+    /**
+     * Relève l'objectif du budget ; un objectif plus bas que l'actuel est ignoré.
+     *
+     * @param cout coût qu'aucune affectation ne peut battre, typiquement une borne inférieure.
+     */
+    public void fixerObjectif(int cout) {
+        if (cout > objectif) objectif = cout;
+    }
+
+    /**
+     * @return le plus haut des objectifs de ce budget et de ses parents.
+     */
+    public int objectif() {
+        return parent == null ? objectif : Math.max(objectif, parent.objectif());
+    }
+
+    /**
+     * @return {@code true} si le coût donné atteint l'objectif, auquel cas la recherche peut s'arrêter.
+     */
+    public boolean objectifAtteint(int cout) {
+        return cout <= objectif();
+    }
+
+    /**
+     * Attache un suivi, qui vaut aussi pour les budgets dépendant de celui-ci.
+     */
+    public void suivre(SuiviResolution suivi) {
+        this.suivi = suivi;
+    }
+
+    private SuiviResolution suivi() {
+        for (Budget b = this; b != null; b = b.parent) {
+            SuiviResolution s = b.suivi;
+            if (s != null) return s;
+        }
+        return null;
+    }
+
+    /**
+     * Signale au suivi éventuel une solution améliorante de la recherche.
+     *
+     * @param ressourceDe ressources par colon ; copiées seulement si la solution est retenue.
+     */
+    void signalerAmelioration(int cout, int[] ressourceDe) {
+        SuiviResolution s = suivi();
+        if (s != null) s.proposer(cout, ressourceDe);
+    }
+
+    /**
+     * Signale au suivi éventuel des itérations faites sans passer par {@link #epuise}.
+     */
+    void signalerIterations(long nombre) {
+        SuiviResolution s = suivi();
+        if (s != null) s.ajouterIterations(nombre);
+    }
+
+    /**
+     * Demande l'arrêt de la recherche ; peut être appelé depuis n'importe quel thread.
+     */
+    public void arreter() {
+        arrete = true;
+    }
+
+    public boolean estArrete() {
+        return arrete;
+    }
+
+    /**
+     * @param iterations nombre d'itérations déjà effectuées par l'appelant.
+     * @return {@code true} si la recherche doit s'arrêter.
+     */
+    public boolean epuise(long iterations) {
+        if (arrete || termine) return true;
+        if (iterationsMax > 0 && iterations >= iterationsMax) return true;
+        if ((iterations & 0x3FF) == 0) {
+            if (iterations > 0) signalerIterations(1024);
+            if (dureeEcoulee() || (parent != null && parent.estTermine())) {
+                termine = true;
+            }
+        }
+        return termine;
+    }
+
+    /**
+     * @return {@code true} si le budget est arrêté ou que sa durée (ou celle d'un parent) est écoulée,
+     * indépendamment de tout nombre d'itérations.
+     */
+    public boolean estTermine() {
+        if (arrete || termine) return true;
+        if (dureeEcoulee() || (parent != null && parent.estTermine())) {
+            termine = true;
+        }
+        return termine;
+    }
+
+    private boolean dureeEcoulee() {
+        return dureeMaxNanos > 0 && System.nanoTime() - debut >= dureeMaxNanos;
+    }
+
+    /**
+     * @return la fraction du budget consommée, entre 0 et 1 (0 si le budget est illimité).
+     */
+    public double progression(long iterations) {
+        double fraction = 0;
+        if (iterationsMax > 0) {
+            fraction = (double) iterations / iterationsMax;
+        }
+        if (dureeMaxNanos > 0) {
+            fraction = Math.max(fraction, (double) (System.nanoTime() - debut) / dureeMaxNanos);
+        }
+        return Math.min(fraction, 1.0);
+    }
+
+    /**
+     * @return la durée restante en millisecondes, ou {@link Long#MAX_VALUE} si la durée est illimitée.
+     */
+    public long dureeRestanteMillis() {
+        if (dureeMaxNanos <= 0) return Long.MAX_VALUE;
+        return Math.max(0, (dureeMaxNanos - (System.nanoTime() - debut)) / 1_000_000L);
+    }
+
+    public long tempsEcouleMillis() {
+        return (System.nanoTime() - debut) / 1_000_000L;
+    }
+}
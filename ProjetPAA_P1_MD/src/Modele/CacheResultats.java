@@ -0,0 +1,403 @@
+package Modele;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache des meilleurs résultats connus, adressé par le contenu des instances : une colonie soumise à nouveau,
+ * même avec ses déclarations réordonnées ou ses colons et ressources renommés, retrouve sa solution sans
+ * nouvelle recherche. Les entrées sont gardées dans un LRU en mémoire borné et, si un dossier est donné,
+ * dans un fichier par entrée qui survit au programme.
+ * <p>
+ * Une instance a deux empreintes SHA-256 ({@link Cle}), calculées sur sa structure seule (préférences
+ * et conflits, sans les noms) après numérotation canonique des colons et des ressources :
+ * <ul>
+ * <li>par noms triés : insensible à l'ordre des déclarations, et aux renommages qui préservent l'ordre des noms ;</li>
+ * <li>par ordre de déclaration : insensible à tout renommage qui garde l'ordre des déclarations.</li>
+ * </ul>
+ * Un renommage qui change à la fois l'ordre des noms et celui des déclarations n'est pas reconnu : il
+ * faudrait une forme canonique du graphe à isomorphisme près. Deux instances de même empreinte sont
+ * identiques à la numérotation près ; chaque entrée garde sa solution dans la numérotation de son empreinte,
+ * qui vaut donc pour l'une et l'autre.
+ * <p>
+ * Chaque entrée retient aussi l'effort déjà consacré à l'instance (somme des durées de recherche) :
+ * {@link #resoudre} rend l'entrée telle quelle si le budget demandé ne dépasse pas cet effort, et sinon
+ * relance le solveur en partant de la solution connue.
+ */
+public final class CacheResultats {
+    /**
+     * "COLC" : entrée du cache.
+     */
+    private static final int MAGIE = 0x434F4C43;
+    private static final int VERSION = 1;
+
+    private final int capacite;
+    private final Path dossier;
+    private final Map<String, Entree> memoire;
+
+    /**
+     * Meilleur résultat connu, dans la numérotation de son empreinte.
+     */
+    private static final class Entree {
+        private final int[] ressourceDe;
+        private final int cout;
+        private final int borne;
+        private final boolean optimal;
+        private final long effortMillis;
+
+        Entree(int[] ressourceDe, int cout, int borne, boolean optimal, long effortMillis) {
+            this.ressourceDe = ressourceDe;
+            this.cout = cout;
+            this.borne = borne;
+            this.optimal = optimal;
+            this.effortMillis = effortMillis;
+        }
+    }
+
+    /**
+     * Entrée retrouvée pour une instance, avec la numérotation de son empreinte.
+     */
+    private static final class Connue {
+        private final Numerotation numerotation;
+        private final Entree entree;
+
+        Connue(Numerotation numerotation, Entree entree) {
+            this.numerotation = numerotation;
+            this.entree = entree;
+        }
+    }
+
+    /**
+     * Une empreinte et la numérotation canonique sur laquelle elle est calculée.
+     */
+    private static final class Numerotation {
+        private final String empreinte;
+        private final int[] rangColon;
+        private final int[] rangRessource;
+        private final int[] ressourceDeRang;
+
+        Numerotation(Instance instance, int[] rangColon, int[] rangRessource) {
+            this.rangColon = rangColon;
+            this.rangRessource = rangRessource;
+            this.ressourceDeRang = inverse(rangRessource);
+            this.empreinte = empreinte(instance, rangColon, rangRessource);
+        }
+    }
+
+    /**
+     * Empreintes d'une instance, à calculer une fois par {@link #cle(Instance)}.
+     */
+    public static final class Cle {
+        private final Numerotation parNoms;
+        private final Numerotation parDeclaration;
+
+        private Cle(Numerotation parNoms, Numerotation parDeclaration) {
+            this.parNoms = parNoms;
+            this.parDeclaration = parDeclaration;
+        }
+
+        /**
+         * @return l'empreinte par noms triés, en hexadécimal.
+         */
+        public String getEmpreinte() {
+            return parNoms.empreinte;
+        }
+    }
+
+    /**
+     * @param capacite nombre d'entrées gardées en mémoire (deux par instance).
+     * @param dossier  dossier des entrées persistantes (créé au besoin), ou {@code null} pour un cache en mémoire seule.
+     */
+    public CacheResultats(int capacite, Path dossier) throws IOException {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La capacité du cache doit être positive.");
+        }
+        this.capacite = capacite;
+        this.dossier = dossier;
+        if (dossier != null) {
+            Files.createDirectories(dossier);
+        }
+        this.memoire = new LinkedHashMap<String, Entree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> plusAncienne) {
+                return size() > CacheResultats.this.capacite;
+            }
+        };
+    }
+
+    /**
+     * Calcule les empreintes de l'instance, en O(n² + m) comme sa lecture.
+     */
+    public static Cle cle(Instance instance) {
+        int n = instance.nombreColons();
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        Integer[] ordreColons = new Integer[n];
+        Integer[] ordreRessources = new Integer[n];
+        int[] identite = new int[n];
+        for (int i = 0; i < n; i++) {
+            ordreColons[i] = i;
+            ordreRessources[i] = i;
+            identite[i] = i;
+        }
+        Arrays.sort(ordreColons, Comparator.comparing(colons::nom));
+        Arrays.sort(ordreRessources, Comparator.comparing(ressources::nom));
+        int[] rangColon = new int[n];
+        int[] rangRessource = new int[n];
+        for (int i = 0; i < n; i++) {
+            rangColon[ordreColons[i]] = i;
+            rangRessource[ordreRessources[i]] = i;
+        }
+        return new Cle(new Numerotation(instance, rangColon, rangRessource), new Numerotation(instance, identite, identite));
+    }
+
+    /**
+     * Empreinte de la structure de l'instance dans la numérotation donnée : n, puis pour chaque colon dans
+     * l'ordre canonique, ses préférences puis le nombre et la liste croissante de ses voisins de rang supérieur.
+     */
+    private static String empreinte(Instance instance, int[] rangColon, int[] rangRessource) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible.", e);
+        }
+        int n = instance.nombreColons();
+        int[] colonDeRang = inverse(rangColon);
+        int[][] preferences = instance.matricePreferences();
+        GrapheConflits conflits = instance.getConflits();
+        ByteBuffer tampon = ByteBuffer.allocate(4 * (n + 1));
+        tampon.putInt(n);
+        int[] voisins = new int[16];
+        for (int i = 0; i < n; i++) {
+            int c = colonDeRang[i];
+            for (int r : preferences[c]) {
+                tampon.putInt(rangRessource[r]);
+            }
+            sha.update(tampon.array(), 0, tampon.position());
+            tampon.clear();
+
+            int[] adjacents = conflits.voisinsDe(c);
+            if (voisins.length < adjacents.length) voisins = new int[adjacents.length];
+            int nombre = 0;
+            for (int v : adjacents) {
+                if (rangColon[v] > i) voisins[nombre++] = rangColon[v];
+            }
+            Arrays.sort(voisins, 0, nombre);
+            tampon.putInt(nombre);
+            for (int k = 0; k < nombre; k++) {
+                tampon.putInt(voisins[k]);
+            }
+            sha.update(tampon.array(), 0, tampon.position());
+            tampon.clear();
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : sha.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static int[] inverse(int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            inverse[permutation[i]] = i;
+        }
+        return inverse;
+    }
+
+    /**
+     * @return le meilleur résultat connu pour l'instance (solveur « cache », durée nulle), ou {@code null}.
+     */
+    public ResultatResolution chercher(Instance instance, Cle cle) {
+        Connue connue = meilleure(cle);
+        if (connue == null) return null;
+        Numerotation numerotation = connue.numerotation;
+        Entree entree = connue.entree;
+        int n = instance.nombreColons();
+        if (entree.ressourceDe.length != n) return null;
+        int[] ressourceDe = new int[n];
+        for (int c = 0; c < n; c++) {
+            ressourceDe[c] = numerotation.ressourceDeRang[entree.ressourceDe[numerotation.rangColon[c]]];
+        }
+        Affectation affectation = new Affectation(ressourceDe);
+        // Recalcul en O(n + m) : le coût rendu ne dépend jamais du seul contenu du fichier
+        int cout = new EvaluateurCout(instance, affectation).cout();
+        return new ResultatResolution("cache", affectation, cout, entree.borne, 0, 0, 0, entree.optimal && cout == entree.cout);
+    }
+
+    /**
+     * @return {@code true} si le résultat connu rend inutile une recherche avec ce budget : il est optimal,
+     * ou la durée du budget ne dépasse pas l'effort déjà consacré à l'instance.
+     */
+    public boolean estSuffisant(Cle cle, Budget budget) {
+        Connue connue = meilleure(cle);
+        if (connue == null) return false;
+        Entree entree = connue.entree;
+        return entree.optimal || budget.dureeRestanteMillis() <= entree.effortMillis;
+    }
+
+    /**
+     * Retient le résultat s'il améliore le meilleur connu, et ajoute sa durée à l'effort consacré à l'instance.
+     */
+    public void enregistrer(Instance instance, Cle cle, ResultatResolution resultat) {
+        Affectation affectation = resultat.getAffectation();
+        // Les deux empreintes coïncident quand les noms sont déclarés dans l'ordre : une seule entrée
+        Numerotation[] numerotations = cle.parNoms.empreinte.equals(cle.parDeclaration.empreinte)
+                ? new Numerotation[]{cle.parNoms} : new Numerotation[]{cle.parNoms, cle.parDeclaration};
+        for (Numerotation numerotation : numerotations) {
+            int[] canonique = new int[affectation.taille()];
+            for (int c = 0; c < canonique.length; c++) {
+                canonique[numerotation.rangColon[c]] = numerotation.rangRessource[affectation.ressourceDe(c)];
+            }
+            // Lecture, fusion, mise en mémoire et écriture d'un seul tenant : deux résultats concurrents
+            // ne peuvent ni remplacer une meilleure entrée ni perdre l'effort de l'autre
+            synchronized (this) {
+                Entree ancienne = entree(numerotation.empreinte);
+                long effort = resultat.getDureeMillis() + (ancienne == null ? 0 : ancienne.effortMillis);
+                Entree nouvelle;
+                if (ancienne != null && ancienne.cout <= resultat.getCout()) {
+                    nouvelle = new Entree(ancienne.ressourceDe, ancienne.cout, Math.max(ancienne.borne, resultat.getBorneInferieure()),
+                            ancienne.optimal, effort);
+                } else {
+                    nouvelle = new Entree(canonique, resultat.getCout(), resultat.getBorneInferieure(), resultat.estOptimal(), effort);
+                }
+                memoire.put(numerotation.empreinte, nouvelle);
+                if (dossier != null) {
+                    try {
+                        ecrire(numerotation.empreinte, nouvelle);
+                    } catch (IOException e) {
+                        System.out.println("Cache : entrée " + numerotation.empreinte + " non écrite (" + e.getMessage() + ").");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Résout l'instance à travers le cache : rend le résultat connu s'il suffit ({@link #estSuffisant}),
+     * sinon lance le solveur depuis la solution connue (ou depuis son départ habituel) et enregistre son résultat.
+     *
+     * @return le meilleur des deux résultats.
+     */
+    public ResultatResolution resoudre(Solveur solveur, Instance instance, Budget budget) {
+        Cle cle = cle(instance);
+        ResultatResolution connu = chercher(instance, cle);
+        if (connu != null && estSuffisant(cle, budget)) {
+            return connu;
+        }
+        ResultatResolution resultat = connu == null ? solveur.resoudre(instance, budget)
+                : solveur.resoudre(instance, connu.getAffectation(), budget);
+        enregistrer(instance, cle, resultat);
+        return connu != null && connu.getCout() < resultat.getCout() ? connu : resultat;
+    }
+
+    /**
+     * @return l'entrée de plus petit coût (puis de plus grand effort) des deux empreintes, avec sa numérotation,
+     * ou {@code null}. L'entrée est celle lue ici : une éviction ultérieure ne la rend pas caduque.
+     */
+    private Connue meilleure(Cle cle) {
+        Entree parNoms = entree(cle.parNoms.empreinte);
+        Entree parDeclaration = entree(cle.parDeclaration.empreinte);
+        Connue declaration = parDeclaration == null ? null : new Connue(cle.parDeclaration, parDeclaration);
+        Connue noms = parNoms == null ? null : new Connue(cle.parNoms, parNoms);
+        if (noms == null || declaration == null) return noms == null ? declaration : noms;
+        if (parDeclaration.cout != parNoms.cout) return parDeclaration.cout < parNoms.cout ? declaration : noms;
+        return parDeclaration.effortMillis > parNoms.effortMillis ? declaration : noms;
+    }
+
+    /**
+     * @return l'entrée de l'empreinte, en mémoire ou relue sur disque, ou {@code null}.
+     */
+    private Entree entree(String empreinte) {
+        synchronized (this) {
+            Entree entree = memoire.get(empreinte);
+            if (entree != null || dossier == null) return entree;
+        }
+        Entree entree;
+        try {
+            entree = lire(empreinte);
+        } catch (IOException e) {
+            System.out.println("Cache : entrée " + empreinte + " illisible (" + e.getMessage() + ").");
+            return null;
+        }
+        if (entree != null) {
+            synchronized (this) {
+                memoire.putIfAbsent(empreinte, entree);
+            }
+        }
+        return entree;
+    }
+
+    private Path fichier(String empreinte) {
+        return dossier.resolve(empreinte + ".cache");
+    }
+
+    /**
+     * @return l'entrée lue, ou {@code null} si le fichier n'existe pas.
+     * @throws IOException si le fichier est illisible ou ne contient pas une permutation.
+     */
+    private Entree lire(String empreinte) throws IOException {
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier(empreinte)), 1 << 16))) {
+            if (entree.readInt() != MAGIE || entree.readInt() != VERSION) {
+                throw new IOException("en-tête incorrect");
+            }
+            int n = entree.readInt();
+            int cout = entree.readInt();
+            int borne = entree.readInt();
+            boolean optimal = entree.readBoolean();
+            long effort = entree.readLong();
+            if (n < 0) throw new IOException("en-tête incorrect");
+            int[] ressourceDe = new int[n];
+            boolean[] prise = new boolean[n];
+            for (int c = 0; c < n; c++) {
+                int r = entree.readInt();
+                if (r < 0 || r >= n || prise[r]) throw new IOException("la solution n'est pas une permutation");
+                prise[r] = true;
+                ressourceDe[c] = r;
+            }
+            return new Entree(ressourceDe, cout, borne, optimal, effort);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Écrit l'entrée dans un fichier temporaire puis le renomme : un lecteur concurrent ne voit jamais
+     * une entrée à moitié écrite.
+     */
+    private void ecrire(String empreinte, Entree entree) throws IOException {
+        Path temporaire = Files.createTempFile(dossier, empreinte, ".tmp");
+        try {
+            try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaire), 1 << 16))) {
+                sortie.writeInt(MAGIE);
+                sortie.writeInt(VERSION);
+                sortie.writeInt(entree.ressourceDe.length);
+                sortie.writeInt(entree.cout);
+                sortie.writeInt(entree.borne);
+                sortie.writeBoolean(entree.optimal);
+                sortie.writeLong(entree.effortMillis);
+                for (int r : entree.ressourceDe) {
+                    sortie.writeInt(r);
+                }
+            }
+            Files.move(temporaire, fichier(empreinte), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaire);
+        }
+    }
+}
@@ -1,53 +1,109 @@
 package Modele;
 
-import java.util.*;
+import java.util.Arrays;
 
+/**
+ * Colon identifié par un entier dense 0..n-1 ; son nom est conservé à part, dans une {@link TableNoms}.
+ * Les ressources sont elles aussi désignées par leur identifiant.
+ */
 public class Colon {
-    private char nom;
-    private List<Integer> preferences = new ArrayList<>();
-    private Integer objetAffecte;
+    private final int id;
 
-    public Colon(char nom) {
-        this.nom = nom;
+    /**
+     * Ressources par ordre de préférence.
+     */
+    private int[] preferences = new int[0];
+
+    /**
+     * rang[r] : position de la ressource r dans {@code preferences}.
+     */
+    private int[] rang = new int[0];
+
+    private int objetAffecte = -1;
+
+    public Colon(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
     }
 
-    public char getNom() {
-        return nom;
+    public String getNom(TableNoms noms) {
+        return noms.nom(id);
     }
 
-    public List<Integer> getPreferences() {
+    public int[] getPreferences() {
         return preferences;
     }
 
-    public void setPreferences(List<Integer> preferences) {
-        this.preferences = preferences;
+    public boolean aDesPreferences() {
+        return preferences.length > 0;
     }
 
-    public Integer getObjetAffecte() {
+    /**
+     * @param preferences ressources par ordre de préférence, formant une permutation de 0..n-1 ; le tableau est copié.
+     * @throws IllegalArgumentException si une ressource manque ou apparaît deux fois.
+     */
+    public void setPreferences(int[] preferences) {
+        int[] rangs = new int[preferences.length];
+        Arrays.fill(rangs, -1);
+        for (int k = 0; k < preferences.length; k++) {
+            int r = preferences[k];
+            if (r < 0 || r >= rangs.length || rangs[r] != -1) {
+                throw new IllegalArgumentException("Les préférences ne sont pas une permutation des ressources (ressource " + r + ").");
+            }
+            rangs[r] = k;
+        }
+        this.preferences = preferences.clone();
+        this.rang = rangs;
+    }
+
+    /**
+     * @return le rang de la ressource (0 = préférée).
+     */
+    public int rang(int ressource) {
+        return rang[ressource];
+    }
+
+    /**
+     * @return la ressource affectée, ou -1 s'il n'y en a pas.
+     */
+    public int getObjetAffecte() {
         return objetAffecte;
     }
 
-    public void setObjetAffecte(Integer objetAffecte) {
+    public void setObjetAffecte(int objetAffecte) {
         this.objetAffecte = objetAffecte;
     }
 
-    public boolean estJaloux(Map<Character, Colon> colons, Set<String> conflits) {
-        if (objetAffecte == null || preferences.isEmpty()) return false;
-
-        int rangObjet = preferences.indexOf(objetAffecte);
-        for (String conflit : conflits) {
-            if (conflit.contains(String.valueOf(nom))) {
-                char autreColonNom = conflit.charAt(0) == nom ? conflit.charAt(2) : conflit.charAt(0);
-                Colon autreColon = colons.get(autreColonNom);
+    /**
+     * Un colon est jaloux si l'un des colons avec qui il est en conflit a reçu une ressource qu'il préfère à la sienne.
+     *
+     * @param colons   colons de la colonie, indexés par identifiant.
+     * @param conflits relations entre colons.
+     */
+    public boolean estJaloux(Colon[] colons, GestionnaireConflits conflits) {
+        if (objetAffecte == -1 || !aDesPreferences()) return false;
 
-                if (autreColon != null && autreColon.getObjetAffecte() != null) {
-                    int rangAutreObjet = preferences.indexOf(autreColon.getObjetAffecte());
-                    if (rangAutreObjet < rangObjet) {
-                        return true;
-                    }
-                }
+        int rangObjet = rang[objetAffecte];
+        for (int i = 0; i < conflits.degre(id); i++) {
+            int autreObjet = colons[conflits.voisin(id, i)].getObjetAffecte();
+            if (autreObjet != -1 && rang[autreObjet] < rangObjet) {
+                return true;
             }
         }
         return false;
     }
+
+    /**
+     * Nom attribué au colon d'identifiant {@code id} en mode manuel : A, B, ..., Z, AA, AB, ...
+     */
+    public static String nomParDefaut(int id) {
+        StringBuilder nom = new StringBuilder();
+        for (int k = id + 1; k > 0; k = (k - 1) / 26) {
+            nom.append((char) ('A' + (k - 1) % 26));
+        }
+        return nom.reverse().toString();
+    }
 }
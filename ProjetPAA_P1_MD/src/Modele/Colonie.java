@@ -5,7 +5,14 @@ import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Colonie {
     /**
@@ -19,19 +26,59 @@ public class Colonie {
     private List<String> ressources = new ArrayList<>();
 
     /**
-     * Map des préférences de chaque colon.
+     * Colons saisis en mode manuel, indexés par identifiant, avec leurs préférences.
      */
-    private Map<String, List<String>> preferences = new HashMap<>();
+    private Colon[] membres;
 
     /**
-     * Map des affectations des ressources à chaque colon.
+     * Noms des colons et des ressources saisis en mode manuel.
      */
-    private Map<String, String> affectations = new HashMap<>();
+    private TableNoms nomsColons;
+    private TableNoms nomsRessources;
 
     /**
-     * Ensemble des conflits entre les colons.
+     * Affectation courante des ressources aux colons ({@code null} tant qu'aucune solution n'a été proposée).
      */
-    private Set<String> conflits = new HashSet<>();
+    private Affectation affectation;
+
+    /**
+     * Session d'échanges manuels sur l'affectation, qui tient à jour les colons jaloux.
+     */
+    private SessionAffectation session;
+
+    /**
+     * Conflits entre les colons, indexés par position dans {@code colons}.
+     */
+    private GestionnaireConflits conflits = new GestionnaireConflits();
+
+    /**
+     * Forme compilée de la colonie (identifiants entiers et matrice des rangs), construite une fois la configuration terminée.
+     */
+    private Instance instance;
+
+    /**
+     * Prétraitement de l'instance chargée : colons sans conflit et composantes du graphe des conflits.
+     */
+    private Reduction reduction;
+
+    /**
+     * Cache des résultats, actif si la propriété système {@code colonie.cache} donne son dossier, et empreinte
+     * de l'instance chargée.
+     */
+    private CacheResultats cache;
+    private CacheResultats.Cle cleCache;
+
+    /**
+     * Résolution automatique en cours sur un autre thread ({@code null} s'il n'y en a pas) ;
+     * lue aussi par le thread d'affichage de la progression.
+     */
+    private volatile ResolutionEnArrierePlan enCours;
+
+    /**
+     * Thread qui affiche périodiquement la progression de la résolution en cours.
+     */
+    private ScheduledExecutorService planificateur;
+    private volatile ScheduledFuture<?> affichageProgression;
 
     /**
      * Scanner pour lire les entrées de l'utilisateur.
@@ -39,11 +86,29 @@ public class Colonie {
     private Scanner sc = new Scanner(System.in);
 
     /**
-     * Enumération pour suivre la section actuelle lors de la lecture du fichier.
+     * Durée maximale accordée à la résolution exacte, en millisecondes.
      */
-    private enum Section {
-        NONE, COLON, RESSOURCE, DETESTE, PREFERENCES
-    }
+    private static final long DUREE_MAX_EXACTE_MS = 60_000;
+
+    /**
+     * Une résolution terminée dans ce délai est affichée directement, sans passer en arrière-plan.
+     */
+    private static final long ATTENTE_AFFICHAGE_MS = 300;
+
+    /**
+     * Attente maximale, après une demande d'arrêt, avant de rendre la main au menu.
+     */
+    private static final long ATTENTE_ARRET_MS = 1000;
+
+    /**
+     * Période d'affichage de la progression d'une résolution en arrière-plan.
+     */
+    private static final long PERIODE_PROGRESSION_MS = 2000;
+
+    /**
+     * Dossier du cache des résultats ({@code -Dcolonie.cache=dossier}), ou {@code null}.
+     */
+    private static final String DOSSIER_CACHE = System.getProperty("colonie.cache");
 
     /**
      * Méthode principale pour démarrer le programme.
@@ -56,28 +121,56 @@ public class Colonie {
                 System.out.println("Erreur lors de la lecture du fichier.");
                 return;
             }
-            // Si la lecture s'est bien passée, les colons, ressources, conflits et préférences sont déjà configurés
+            // Si la lecture s'est bien passée, l'instance compilée (colons, ressources, conflits et préférences) est prête
             boolean fin = false;
             while (!fin) {
+                recupererResolutionTerminee();
                 afficherMenuGeneral(); // Afficher le menu général pour les options disponibles
                 int choix = sc.nextInt();
                 sc.nextLine(); 
-    
+                recupererResolutionTerminee();
+
                 switch (choix) {
                     case 1:
-                    resolutionGloutonne(); // Résolution automatique des affectations 
+                        if (enCours != null) {
+                            System.out.println("Une résolution est déjà en cours (4 pour l'arrêter).");
+                        } else {
+                            resolutionAutomatique(); // Résolution automatique des affectations
+                        }
                         break;
                     case 2:
+                        if (enCours != null) {
+                            prendreMeilleureSolution();
+                        }
                         sauvegarderSolution(); // Sauvegarder la solution
                         break;
                     case 3:
+                        if (enCours != null && !arreterResolution()) {
+                            System.out.println("La résolution en cours est abandonnée.");
+                        }
                         fin = true; // Terminer le programme
                         System.out.println("Programme terminé.");
                         break;
+                    case 4:
+                        if (!arreterResolution()) {
+                            System.out.println("Arrêt demandé : la résolution termine son étape en cours, "
+                                    + "son résultat sera affiché au prochain choix du menu.");
+                        }
+                        break;
+                    case 5:
+                        if (prendreMeilleureSolution()) {
+                            afficherAffectations();
+                            System.out.println("Coût de la meilleure solution actuelle : " + calculerCoutSolution()
+                                    + " (la recherche continue).");
+                        }
+                        break;
                     default:
                         System.out.println("Choix incorrect, veuillez réessayer.");
                 }
             }
+            if (planificateur != null) {
+                planificateur.shutdownNow();
+            }
     
         } else {
             // Mode manuel
@@ -86,35 +179,41 @@ public class Colonie {
             for (int i = 1; i <= colons.size(); i++) {
                 ressources.add(String.valueOf(i));
             }
+            nomsRessources = new TableNoms(ressources);
 
             configurerColonie();
+            compilerInstance();
             proposerSolutionNaive();
             gererAffectations();
         }
     }
 
     /**
-     * Initialise la liste des colons en demandant à l'utilisateur combien de colons (entre 1 et 26).
+     * Initialise la liste des colons en demandant à l'utilisateur combien de colons (au moins 1).
+     * Les colons sont nommés A, B, ..., Z, AA, AB, ...
      */
     private void initialiserColons() {
         boolean saisieValide = false;
         int nb = 0;
         while (!saisieValide) {
-            System.out.println("Veuillez entrer le nombre de colons (Max 26):");
+            System.out.println("Veuillez entrer le nombre de colons :");
             String input = sc.nextLine().trim();
             try {
                 nb = parseNombreColons(input);
                 saisieValide = true;
             } catch (NombreNonEntierException e) {
-                System.out.println("Vous n'avez pas saisi un nombre, veuillez saisir un nombre entre 1 et 26.");
+                System.out.println("Vous n'avez pas saisi un nombre, veuillez saisir un nombre entier positif.");
             } catch (NombreDeColonsInvalideException e) {
-                System.out.println("Veuillez saisir un nombre entre 1 et 26.");
+                System.out.println("Veuillez saisir un nombre entier positif.");
             }
         }
 
+        membres = new Colon[nb];
         for (int i = 0; i < nb; i++) {
-            colons.add(String.valueOf((char) ('A' + i)));
+            colons.add(Colon.nomParDefaut(i));
+            membres[i] = new Colon(i);
         }
+        nomsColons = new TableNoms(colons);
     }
 
     private int parseNombreColons(String input) throws NombreNonEntierException, NombreDeColonsInvalideException {
@@ -125,8 +224,8 @@ public class Colonie {
             throw new NombreNonEntierException("La valeur saisie n'est pas un entier.");
         }
 
-        if (nb < 1 || nb > 26) {
-            throw new NombreDeColonsInvalideException("Le nombre de colons doit être entre 1 et 26.");
+        if (nb < 1) {
+            throw new NombreDeColonsInvalideException("Le nombre de colons doit être au moins 1.");
         }
         return nb;
     }
@@ -200,30 +299,21 @@ public class Colonie {
             throw new RelationMemeColonException("Relation avec le même colon non autorisée.");
         }
 
-        if (!colons.contains(colon1) || !colons.contains(colon2)) {
+        int id1 = nomsColons.id(colon1);
+        int id2 = nomsColons.id(colon2);
+        if (id1 == -1 || id2 == -1) {
             System.out.println("Les colons spécifiés n'existent pas.");
             return;
         }
 
-        // Vérifier si la relation existe déjà
-        if (estEnConflit(colon1, colon2)) {
+        // Ajouter la relation si elle n'existe pas déjà
+        if (!conflits.ajouterConflit(id1, id2)) {
             throw new RelationDejaExistanteException("Relation déjà existante.");
         }
 
-        String relation = colon1 + "-" + colon2;
-        conflits.add(relation);
         System.out.println("Relation ajoutée entre " + colon1 + " et " + colon2);
     }
 
-    /**
-     * Vérifie si deux colons sont en conflit (déjà enregistrés dans le set 'conflits')
-     */
-    private boolean estEnConflit(String c1, String c2) {
-        String rel1 = c1 + "-" + c2;
-        String rel2 = c2 + "-" + c1;
-        return conflits.contains(rel1) || conflits.contains(rel2);
-    }
-
     private void ajouterPreferencesManuelles() throws PreferencesDejaAjouteesException, FormatIncorrectException {
         System.out.print("Entrez le nom du colon et ses préférences, exemple: A 1 2 3: ");
         String ligne = sc.nextLine().trim();
@@ -235,64 +325,80 @@ public class Colonie {
         }
 
         String nom = parties[0];
-        if (!colons.contains(nom)) {
+        int colon = nomsColons.id(nom);
+        if (colon == -1) {
             System.out.println("Le colon spécifié n'existe pas.");
             return;
         }
 
-        if (preferences.containsKey(nom)) {
+        if (membres[colon].aDesPreferences()) {
             throw new PreferencesDejaAjouteesException("Préférences déjà ajoutées");
         }
 
-        List<String> prefs = new ArrayList<>();
+        int[] prefs = new int[parties.length - 1];
+        boolean[] vues = new boolean[ressources.size()];
         for (int i = 1; i < parties.length; i++) {
             String res = parties[i];
-            if (!ressources.contains(res)) {
+            int r = nomsRessources.id(res);
+            if (r == -1) {
                 // Si la ressource n'existe pas, vérifier si c'est un nombre valide puis la créer (dans le mode manuel c'est déjà créé)
                 System.out.println("La ressource " + res + " n'existe pas.");
                 return;
             }
-            prefs.add(res);
+            if (vues[r]) {
+                System.out.println("La ressource " + res + " apparaît plusieurs fois.");
+                return;
+            }
+            vues[r] = true;
+            prefs[i - 1] = r;
         }
 
-        if (prefs.size() != ressources.size()) {
+        if (prefs.length != ressources.size()) {
             System.out.println("Veuillez ajouter des ressources qui existent (le nombre de ressources = le nombre de colons).");
             return;
         }
 
-        preferences.put(nom, prefs);
+        membres[colon].setPreferences(prefs);
         System.out.println("Préférences ajoutées pour le colon " + nom);
     }
 
     private boolean verification() {
-        for (String colon : colons) {
-            if (!preferences.containsKey(colon) || preferences.get(colon).size() != ressources.size()) {
-                System.out.println("Le colon " + colon + " a des préférences incomplètes.");
+        for (Colon colon : membres) {
+            if (colon.getPreferences().length != ressources.size()) {
+                System.out.println("Le colon " + colon.getNom(nomsColons) + " a des préférences incomplètes.");
                 return false;
             }
         }
         return true;
     }
 
-    private void proposerSolutionNaive() {
-        affectations.clear();
-        Set<String> ressourcesAttribuees = new HashSet<>();
-        for (String colon : colons) {
-            List<String> prefList = preferences.get(colon);
-            for (String pref : prefList) {
-                if (!ressourcesAttribuees.contains(pref)) {
-                    affectations.put(colon, pref);
-                    ressourcesAttribuees.add(pref);
-                    break;
-                }
-            }
+    /**
+     * Construit la forme compilée de la colonie à partir des colons, ressources et préférences saisis.
+     */
+    private void compilerInstance() {
+        int[][] preferences = new int[membres.length][];
+        for (Colon colon : membres) {
+            preferences[colon.getId()] = colon.getPreferences();
         }
+        instance = new Instance(nomsColons, nomsRessources, preferences, conflits.construireGraphe(membres.length));
+    }
+
+    /**
+     * Construit l'affectation gloutonne : chaque colon, dans l'ordre, prend sa ressource préférée encore libre.
+     */
+    private Affectation affectationGloutonne() {
+        return Affectation.gloutonne(instance, null);
+    }
+
+    private void proposerSolutionNaive() {
+        affectation = affectationGloutonne();
         afficherAffectations();
         System.out.println("Coût de la solution : " + calculerCoutSolution());
         
     }
 
     private void gererAffectations() {
+        session = new SessionAffectation(instance, affectation);
         boolean fin = false;
         while (!fin) {
             afficherMenuAffectation();
@@ -308,18 +414,22 @@ public class Colonie {
             switch (choix) {
                 case 1:
                     echangerRessources();
+                    afficherAffectations();
                     break;
                 case 2:
                     afficherColonsJaloux();
                     break;
                 case 3:
+                    rejouerScript();
+                    break;
+                case 4:
                     fin = true;
                     System.out.println("Programme terminé.");
+                    afficherAffectations();
                     break;
                 default:
                     System.out.println("Choix incorrect. Réessayez.");
             }
-            afficherAffectations();
         }
     }
 
@@ -327,58 +437,56 @@ public class Colonie {
         System.out.println("\nMenu:");
         System.out.println("1 - Échanger les ressources de deux colons");
         System.out.println("2 - Afficher le nombre de colons jaloux");
-        System.out.println("3 - Fin");
+        System.out.println("3 - Rejouer un fichier d'échanges");
+        System.out.println("4 - Fin");
         System.out.print("Choix: ");
     }
 
     private void afficherAffectations() {
         System.out.println("\nAffectations actuelles:");
-        for (String colon : affectations.keySet()) {
-            System.out.println(colon + ": " + affectations.get(colon));
-        }
+        if (affectation == null) return;
+        // Une seule écriture sur la sortie, les grandes colonies ayant des milliers de lignes
+        TableNoms tableRessources = instance.getRessources();
+        StringBuilder texte = new StringBuilder();
+        for (int c = 0; c < affectation.taille(); c++) {
+            texte.append(colons.get(c)).append(": ").append(tableRessources.nom(affectation.ressourceDe(c))).append('\n');
+        }
+        System.out.print(texte);
     }
 
     private void afficherColonsJaloux() {
-        int jaloux = 0;
+        // L'ensemble des jaloux est tenu à jour par la session, il n'y a rien à recalculer
         List<String> colonsJaloux = new ArrayList<>();
-        for (String colon : colons) {
-            if (estJaloux(colon)) {
-                jaloux++;
-                colonsJaloux.add(colon);
-            }
+        for (int c : session.colonsJaloux()) {
+            colonsJaloux.add(colons.get(c));
         }
-        System.out.println("Nombre de colons jaloux: " + jaloux + " (" + String.join(", ", colonsJaloux) + ")");
+        System.out.println("Nombre de colons jaloux: " + session.cout() + " (" + String.join(", ", colonsJaloux) + ")");
     }
 
     /**
-     * Détermine si un colon est jaloux.
-     * Un colon est jaloux s'il a une ressource qui lui est affectée, mais un colon avec lequel il est en conflit
-     * a une ressource mieux classée dans ses préférences.
+     * Applique un fichier d'échanges (une ligne "A B" par échange) et affiche le coût après chacun.
      */
-    private boolean estJaloux(String colon) {
-        if (!affectations.containsKey(colon) || !preferences.containsKey(colon)) return false;
-
-        String ressourceAffectee = affectations.get(colon);
-        List<String> pref = preferences.get(colon);
-        int indexAffectee = pref.indexOf(ressourceAffectee);
-        if (indexAffectee == -1) return false;
-
-        // Parcourir tous les conflits impliquant ce colon
-        for (String relation : conflits) {
-            if (relation.contains(colon)) {
-                String[] parts = relation.split("-");
-                String autreColon = parts[0].equals(colon) ? parts[1] : parts[0];
+    private void rejouerScript() {
+        System.out.print("Entrez le nom du fichier d'échanges : ");
+        String nomFichier = sc.nextLine().trim();
+        SessionAffectation.Rejeu rejeu;
+        try (BufferedReader lecteur = new BufferedReader(new FileReader(nomFichier))) {
+            rejeu = session.rejouer(lecteur);
+        } catch (IOException e) {
+            System.out.println("Erreur lors de la lecture du fichier : " + e.getMessage());
+            return;
+        }
 
-                if (affectations.containsKey(autreColon) && preferences.containsKey(colon)) {
-                    String ressourceAutre = affectations.get(autreColon);
-                    int indexAutre = pref.indexOf(ressourceAutre);
-                    if (indexAutre != -1 && indexAutre < indexAffectee) {
-                        return true;
-                    }
-                }
-            }
+        StringBuilder texte = new StringBuilder();
+        for (String erreur : rejeu.getErreurs()) {
+            texte.append(erreur).append('\n');
+        }
+        for (int i = 0; i < rejeu.nombreEchanges(); i++) {
+            texte.append(colons.get(rejeu.colonA(i))).append(" <-> ").append(colons.get(rejeu.colonB(i)))
+                    .append(" : coût ").append(rejeu.coutApres(i)).append('\n');
         }
-        return false;
+        texte.append(rejeu.nombreEchanges()).append(" échange(s) appliqué(s), coût final : ").append(session.cout());
+        System.out.println(texte);
     }
 
     private void echangerRessources() {
@@ -390,15 +498,11 @@ public class Colonie {
             String colon1 = parties[0];
             String colon2 = parties[1];
 
-            if (colons.contains(colon1) && colons.contains(colon2)) {
-                if (affectations.containsKey(colon1) && affectations.containsKey(colon2)) {
-                    String temp = affectations.get(colon1);
-                    affectations.put(colon1, affectations.get(colon2));
-                    affectations.put(colon2, temp);
-                    System.out.println("Échange effectué entre " + colon1 + " et " + colon2);
-                } else {
-                    System.out.println("Un des colons n'a pas de ressource affectée, échange impossible.");
-                }
+            int id1 = instance.getColons().id(colon1);
+            int id2 = instance.getColons().id(colon2);
+            if (id1 != -1 && id2 != -1) {
+                session.echanger(id1, id2);
+                System.out.println("Échange effectué entre " + colon1 + " et " + colon2);
             } else {
                 System.out.println("Un ou plusieurs colons spécifiés n'existent pas.");
             }
@@ -414,322 +518,266 @@ public class Colonie {
      * @return {@code true} si la lecture et l'initialisation se sont bien passée, sinon {@code false}.
      */
     private boolean lireFichier(String nomFichier) {
-        BufferedReader lecteur = null;
-        try {
-            lecteur = new BufferedReader(new FileReader(nomFichier));
-            String ligne;
-            Section sectionCourante = Section.NONE;
-            int numeroLigne = 0;
-
-
-
-            while ((ligne = lecteur.readLine()) != null) {
-                numeroLigne++;
-                ligne = ligne.trim();
-
-                if (ligne.isEmpty()) {
-                    continue; // ignorer les lignes vides
-                }
-
-                // Vérifier que la ligne se termine par un '.'
-                if (!ligne.endsWith(".")) {
-                    System.out.println("Erreur de syntaxe à la ligne " + numeroLigne + " : il manque le point à la fin.");
-                    return false;
-                }
-
-                // Supprimer le point
-                ligne = ligne.substring(0, ligne.length() - 1);
-
-                // Analyser la ligne
-                if (ligne.startsWith("colon(")) {
-                    if (sectionCourante == Section.NONE || sectionCourante == Section.COLON) {
-                        sectionCourante = Section.COLON;
-                    } else {
-                        String sectionIncorrecte = getNomSection(sectionCourante);
-                        System.out.println("Erreur : Vous n'avez pas respecté l'ordre du fichier (colon, ressource, deteste, preferences), 'colon' après '" + sectionIncorrecte + "' à la ligne " + numeroLigne);
-                        return false;
-                    }
-
-                    String nomColon = obtenirArgument(ligne, "colon", numeroLigne);
-                    if (nomColon == null) return false;
-
-                    if (!nomColon.matches("[A-Za-z0-9]+")) {
-                        System.out.println("Erreur : nom de colon invalide à la ligne " + numeroLigne);
-                        return false;
-                    }
-
-                    if (colons.contains(nomColon)) {
-                        System.out.println("Erreur : le colon '" + nomColon + "' a déjà été défini à la ligne " + numeroLigne);
-                        return false;
-                    }
-                    if (ressources.contains(nomColon)) {
-                        System.out.println("Erreur : le nom '" + nomColon + "' est déjà utilisé comme ressource");
-                        return false;
-                    }
-
-                    colons.add(nomColon);
-
-                } else if (ligne.startsWith("ressource(")) {
-                    if (sectionCourante == Section.COLON || sectionCourante == Section.RESSOURCE) {
-                        if (colons.isEmpty()) {
-                            System.out.println("Erreur : Aucun colon défini avant ressource.");
-                            return false;
-                        }
-                        sectionCourante = Section.RESSOURCE;
-                    } else if (sectionCourante == Section.NONE) {
-                        System.out.println("Erreur : 'ressource' en premier (ça doit être après colons).");
-                        return false;
-                    } else {
-                        String sectionIncorrecte = getNomSection(sectionCourante);
-                        System.out.println("Erreur : 'ressource' après '" + sectionIncorrecte + "'");
-                        return false;
-                    }
-
-                    String nomRessource = obtenirArgument(ligne, "ressource", numeroLigne);
-                    if (nomRessource == null) return false;
-                    if (!nomRessource.matches("[A-Za-z0-9]+")) {
-                        System.out.println("Erreur : nom de ressource invalide à la ligne " + numeroLigne);
-                        return false;
-                    }
-
-                    if (ressources.contains(nomRessource)) {
-                        System.out.println("Erreur : ressource '" + nomRessource + "' déjà définie.");
-                        return false;
-                    }
-                    if (colons.contains(nomRessource)) {
-                        System.out.println("Erreur : nom '" + nomRessource + "' déjà utilisé comme colon.");
-                        return false;
-                    }
-
-                    ressources.add(nomRessource);
-
-                } else if (ligne.startsWith("deteste(")) {
-                    if (sectionCourante == Section.RESSOURCE || sectionCourante == Section.DETESTE) {
-                        if (sectionCourante == Section.RESSOURCE) {
-                            if (colons.size() != ressources.size()) {
-                                System.out.println("Erreur : nb colons != nb ressources.");
-                                return false;
-                            }
-                        }
-                        sectionCourante = Section.DETESTE;
-                    } else {
-                        String sectionIncorrecte = getNomSection(sectionCourante);
-                        System.out.println("Erreur : 'deteste' pas dans l'ordre correct.");
-                        return false;
-                    }
-
-                    String[] args = obtenirArguments(ligne, "deteste", 2, numeroLigne);
-                    if (args == null) return false;
-
-                    String c1 = args[0];
-                    String c2 = args[1];
-
-                    if (!colons.contains(c1) || !colons.contains(c2)) {
-                        System.out.println("Erreur : colon(s) non défini(s) dans 'deteste'.");
-                        return false;
-                    }
-
-                    conflits.add(c1 + "-" + c2);
-
-                } else if (ligne.startsWith("preferences(")) {
-                    if (sectionCourante == Section.DETESTE || sectionCourante == Section.PREFERENCES) {
-                        if (sectionCourante == Section.DETESTE) {
-                            if (colons.size() != ressources.size()) {
-                                System.out.println("Erreur : nb colons != nb ressources.");
-                                return false;
-                            }
-                        }
-                        sectionCourante = Section.PREFERENCES;
-                    } else {
-                        System.out.println("Erreur : 'preferences' pas dans l'ordre correct.");
-                        return false;
-                    }
-
-                    String[] args = obtenirArguments(ligne, "preferences", -1, numeroLigne);
-                    if (args == null) return false;
-
-                    if (args.length != ressources.size() + 1) {
-                        System.out.println("Erreur : nombre de préférences incorrect.");
-                        return false;
-                    }
-
-                    String c = args[0];
-                    if (!colons.contains(c)) {
-                        System.out.println("Erreur : colon '" + c + "' non défini.");
-                        return false;
-                    }
-
-                    if (preferences.containsKey(c)) {
-                        System.out.println("Erreur : préférences déjà définies pour '" + c + "'.");
-                        return false;
-                    }
-
-                    List<String> prefs = new ArrayList<>();
-                    for (int i = 1; i < args.length; i++) {
-                        String r = args[i];
-                        if (!ressources.contains(r)) {
-                            System.out.println("Erreur : ressource '" + r + "' non définie.");
-                            return false;
-                        }
-
-                        if (prefs.contains(r)) {
-                            System.out.println("Erreur : ressource '" + r + "' dupliquée dans préférences de '" + c + "'.");
-                            return false;
-                        }
-
-                        prefs.add(r);
-                    }
-
-                    preferences.put(c, prefs);
-
-                } else {
-                    System.out.println("Erreur : élément inconnu à la ligne " + numeroLigne);
-                    return false;
-                }
-            }
-
-            // Vérifier préférences pour tous les colons
-            for (String c : colons) {
-                if (!preferences.containsKey(c)) {
-                    System.out.println("Erreur : les préférences du colon '" + c + "' non définies.");
-                    return false;
-                }
+        if (FormatBinaire.estInstanceBinaire(nomFichier)) {
+            try {
+                instance = FormatBinaire.lireInstance(nomFichier);
+            } catch (IOException e) {
+                System.out.println("Erreur lors de la lecture du fichier : " + e.getMessage());
+                return false;
             }
-
-            return true; // Succès
-
-        } catch (IOException e) {
-            System.out.println("Erreur lors de la lecture du fichier : " + e.getMessage());
+        } else {
+            instance = new LecteurColonie().lire(nomFichier);
+        }
+        if (instance == null) {
             return false;
-        } finally {
-            if (lecteur != null) {
-                try {
-                    lecteur.close();
-                } catch (IOException e) {
-                    // Ignorer
-                }
+        }
+        colons = new ArrayList<>(instance.getColons().noms());
+        ressources = new ArrayList<>(instance.getRessources().noms());
+        reduction = new Reduction(instance);
+        if (reduction.nombreComposantes() > 0) {
+            System.out.println(reduction.nombreColonsIsoles() + " colon(s) sans conflit écarté(s) de la recherche, "
+                    + reduction.nombreComposantes() + " composante(s) de conflits (la plus grande : "
+                    + reduction.tailleComposante(0) + " colons).");
+        }
+        if (DOSSIER_CACHE != null) {
+            try {
+                cache = new CacheResultats(4, Paths.get(DOSSIER_CACHE));
+                cleCache = CacheResultats.cle(instance);
+            } catch (IOException e) {
+                System.out.println("Cache indisponible : " + e.getMessage());
             }
         }
+        return true;
     }
 
-    private String getNomSection(Section section) {
-        switch (section) {
-            case NONE: return "aucune";
-            case COLON: return "colon";
-            case RESSOURCE: return "ressource";
-            case DETESTE: return "deteste";
-            case PREFERENCES: return "preferences";
-            default: return "";
+    /**
+     * Demande la méthode de résolution automatique puis la lance.
+     */
+    private void resolutionAutomatique() {
+        afficherMenuResolution();
+        String choixStr = sc.nextLine().trim();
+        switch (choixStr) {
+            case "1":
+                resoudre(Solveurs.premiereAmelioration(), new Budget(0, 0));
+                break;
+            case "2":
+                resoudre(Solveurs.meilleureAmelioration(ForkJoinPool.commonPool()), new Budget(0, 0));
+                break;
+            case "3":
+                resoudre(Solveurs.meilleureAmelioration(null), new Budget(0, 0));
+                break;
+            case "4":
+                resoudre(Solveurs.exacte(), Budget.duree(DUREE_MAX_EXACTE_MS));
+                break;
+            case "5":
+                resoudre(Solveurs.recuit(System.nanoTime()), Budget.duree(lireDureeSecondes() * 1000L));
+                break;
+            case "6":
+                resoudre(Solveurs.tabou(System.nanoTime()), Budget.duree(lireDureeSecondes() * 1000L));
+                break;
+            case "7":
+                resoudre(Solveurs.portefeuille(Runtime.getRuntime().availableProcessors(), System.nanoTime()),
+                        Budget.duree(lireDureeSecondes() * 1000L));
+                break;
+            case "8":
+                resoudre(Solveurs.meilleureAmelioration(ForkJoinPool.commonPool()),
+                        MethodeHongroise.rangTotalMinimal(instance), new Budget(0, 0));
+                break;
+            default:
+                System.out.println("Choix incorrect, veuillez réessayer.");
         }
     }
 
-    private String obtenirArgument(String ligne, String motCle, int numeroLigne) {
-        int debut = motCle.length() + 1;
-        int fin = ligne.indexOf(')', debut);
-        if (fin == -1) {
-            System.out.println("Erreur de syntaxe à la ligne " + numeroLigne + " : parenthèse fermante manquante.");
-            return null;
-        }
-
+    private void afficherMenuResolution() {
+        System.out.println("\nMéthode de résolution:");
+        System.out.println("1 - Gloutonne (première amélioration)");
+        System.out.println("2 - Meilleure amélioration, voisinage exploré en parallèle");
+        System.out.println("3 - Meilleure amélioration, séquentielle");
+        System.out.println("4 - Exacte (séparation et évaluation)");
+        System.out.println("5 - Recuit simulé (durée limitée)");
+        System.out.println("6 - Recherche tabou (durée limitée)");
+        System.out.println("7 - Portefeuille de recherches en parallèle (durée limitée)");
+        System.out.println("8 - Meilleure amélioration depuis l'affectation de rang total minimal (méthode hongroise)");
+        System.out.print("Choix: ");
+    }
 
-        String arg = ligne.substring(debut, fin).trim();
-        if (arg.isEmpty()) {
-            System.out.println("Erreur : argument manquant pour '" + motCle + "' à la ligne " + numeroLigne);
-            return null;
+    /**
+     * Lance une stratégie de résolution depuis l'affectation gloutonne réduite, retient son affectation
+     * et affiche le résultat. Si la colonie est dans le cache, la solution connue est reprise telle quelle
+     * quand le budget ne permet pas de faire mieux, et sert de départ sinon.
+     */
+    private void resoudre(Solveur solveur, Budget budget) {
+        ResultatResolution connu = cache == null ? null : cache.chercher(instance, cleCache);
+        if (connu == null) {
+            resoudre(solveur, reduction.affectationInitiale(), budget);
+        } else if (cache.estSuffisant(cleCache, budget)) {
+            affectation = connu.getAffectation();
+            afficherAffectations();
+            System.out.println("Solution reprise du cache, coût " + connu.getCout() + " (borne inférieure "
+                    + connu.getBorneInferieure() + ", écart " + connu.getEcart() + ")");
+        } else {
+            System.out.println("Départ depuis la solution du cache (coût " + connu.getCout() + ").");
+            resoudre(solveur, connu.getAffectation(), budget);
         }
-        return arg;
     }
 
-    private String[] obtenirArguments(String ligne, String motCle, int nombreArgsAttendus, int numeroLigne) {
-        int debut = motCle.length() + 1;
-        int fin = ligne.indexOf(')', debut);
-        if (fin == -1) {
-            System.out.println("Erreur de syntaxe à la ligne " + numeroLigne + " : parenthèse fermante manquante.");
-            return null;
+    /**
+     * Lance la résolution sur un autre thread. Si elle se termine rapidement, son résultat est affiché
+     * aussitôt ; sinon sa progression est affichée périodiquement et le menu reste disponible.
+     */
+    private void resoudre(Solveur solveur, Affectation depart, Budget budget) {
+        enCours = new ResolutionEnArrierePlan(solveur, instance, depart, budget);
+        ResultatResolution resultat = attendreResolution(ATTENTE_AFFICHAGE_MS);
+        if (resultat != null || enCours == null) {
+            return;
         }
+        System.out.println("Résolution lancée en arrière-plan : le menu reste disponible "
+                + "(4 pour l'arrêter, 5 pour voir la meilleure solution actuelle).");
+        if (planificateur == null) {
+            planificateur = Executors.newSingleThreadScheduledExecutor(tache -> {
+                Thread thread = new Thread(tache, "progression");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ResolutionEnArrierePlan resolution = enCours;
+        AtomicReference<ScheduledFuture<?>> affichage = new AtomicReference<>();
+        affichage.set(planificateur.scheduleAtFixedRate(() -> afficherProgression(resolution, affichage.get()),
+                PERIODE_PROGRESSION_MS, PERIODE_PROGRESSION_MS, TimeUnit.MILLISECONDS));
+        affichageProgression = affichage.get();
+    }
 
+    /**
+     * Affiche l'état de la résolution ; appelé par le thread de progression, qui reçoit la résolution suivie
+     * et son propre affichage : il ne touche ni aux champs ni à l'affichage d'une résolution plus récente.
+     */
+    private void afficherProgression(ResolutionEnArrierePlan resolution, ScheduledFuture<?> affichage) {
+        if (resolution != enCours) return;
+        SuiviResolution suivi = resolution.getSuivi();
+        String nom = "[" + resolution.getSolveur().nom() + "] ";
+        if (resolution.estTerminee()) {
+            System.out.println("\n" + nom + "Résolution terminée, coût " + suivi.meilleurCout()
+                    + " : choisissez une option pour afficher le résultat.");
+            if (affichage != null) {
+                affichage.cancel(false);
+            }
+            return;
+        }
+        System.out.println("\n" + nom + "meilleur coût " + suivi.meilleurCout() + ", " + suivi.ameliorations()
+                + " amélioration(s), " + suivi.iterations() + " itérations (" + suivi.iterationsParSeconde()
+                + " par seconde), " + suivi.tempsEcouleMillis() / 1000 + " s");
+    }
 
-        String argsString = ligne.substring(debut, fin).trim();
-        String[] args = argsString.split(",");
-        if (nombreArgsAttendus != -1 && args.length != nombreArgsAttendus) {
-            System.out.println("Erreur : nombre d'arguments incorrect pour '" + motCle + "' à la ligne " + numeroLigne);
+    /**
+     * Attend la fin de la résolution en cours et, si elle est terminée, retient et affiche son résultat.
+     *
+     * @param delaiMillis délai maximal d'attente, ou une valeur négative pour attendre sans limite.
+     * @return le résultat, ou {@code null} si la résolution n'est pas terminée ou a échoué.
+     */
+    private ResultatResolution attendreResolution(long delaiMillis) {
+        ResolutionEnArrierePlan resolution = enCours;
+        ResultatResolution resultat;
+        try {
+            resultat = delaiMillis < 0 ? resolution.attendre() : resolution.attendre(delaiMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IllegalStateException e) {
+            System.out.println("La résolution a échoué : " + e.getCause());
+            terminerResolution();
             return null;
         }
-        for (int i = 0; i < args.length; i++) {
-            args[i] = args[i].trim();
-            if (!args[i].matches("[A-Za-z0-9]+")) {
-                System.out.println("Erreur : argument invalide '" + args[i] + "' pour '" + motCle + "' à la ligne " + numeroLigne + ". Les noms doivent être alphanumériques.");
-                return null;
+        if (resultat != null) {
+            terminerResolution();
+            if (cache != null) {
+                cache.enregistrer(instance, cleCache, resultat);
             }
+            afficherResultat(resolution.getSolveur(), resultat, resolution.getBudget());
         }
-        return args;
+        return resultat;
     }
 
-     private boolean sontEnConflit(String colon, String autreColon) {
-        // Construire les deux formes possibles d'un conflit
-        String conflitDirect = colon + "-" + autreColon;
-        String conflitInverse = autreColon + "-" + colon;
+    private void terminerResolution() {
+        enCours = null;
+        ScheduledFuture<?> affichage = affichageProgression;
+        affichageProgression = null;
+        if (affichage != null) {
+            affichage.cancel(false);
+        }
+    }
 
-        // Vérifier si l'un des deux conflits existe dans l'ensemble des conflits
-        return conflits.contains(conflitDirect) || conflits.contains(conflitInverse);
+    /**
+     * Affiche le résultat d'une résolution d'arrière-plan terminée entre deux choix du menu.
+     */
+    private void recupererResolutionTerminee() {
+        if (enCours != null && enCours.estTerminee()) {
+            attendreResolution(-1);
+        }
     }
 
-    /*
-     Méthode de résolution glutonne plus optimale
+    /**
+     * Demande l'arrêt de la résolution en cours et, si elle s'arrête dans un délai borné, retient la meilleure
+     * solution qu'elle a trouvée. Sinon, le menu reprend la main et le résultat est récupéré plus tard
+     * par {@link #recupererResolutionTerminee}.
+     *
+     * @return {@code false} si la résolution ne s'est pas encore arrêtée.
      */
-    private void resolutionGloutonne() {
-        // Étape 1:Initialisation
-        Set<String> ressourcesAttribuees = new HashSet<>();
-        for (String colon : colons) {
-            List<String> prefs = preferences.get(colon);
-            for (String ressource : prefs) {
-                if (!ressourcesAttribuees.contains(ressource)) {
-                    affectations.put(colon, ressource);
-                    ressourcesAttribuees.add(ressource);
-                    break;
-                }
+    private boolean arreterResolution() {
+        ResolutionEnArrierePlan resolution = enCours;
+        if (resolution == null) {
+            System.out.println("Aucune résolution en cours.");
+            return true;
+        }
+        resolution.arreter();
+        attendreResolution(ATTENTE_ARRET_MS);
+        return enCours != resolution;
+    }
+
+    /**
+     * Retient comme affectation courante la meilleure solution trouvée jusqu'ici par la résolution en cours.
+     *
+     * @return {@code false} s'il n'y a pas de résolution en cours.
+     */
+    private boolean prendreMeilleureSolution() {
+        ResolutionEnArrierePlan resolution = enCours;
+        if (resolution == null) {
+            System.out.println("Aucune résolution en cours.");
+            return false;
+        }
+        Affectation meilleure = resolution.getSuivi().meilleureAffectation();
+        if (meilleure != null) {
+            affectation = meilleure;
+        }
+        return true;
+    }
+
+    private void afficherResultat(Solveur solveur, ResultatResolution resultat, Budget budget) {
+        affectation = resultat.getAffectation();
+        afficherAffectations();
+        System.out.println("Coût de la solution : " + resultat.getCout() + " (borne inférieure "
+                + resultat.getBorneInferieure() + ", écart " + resultat.getEcart() + ")");
+        if (solveur.nom().equals("exacte")) {
+            if (resultat.estOptimal()) {
+                System.out.println("Solution optimale (" + resultat.getIterations() + " nœuds explorés).");
+            } else {
+                System.out.println("Temps limite atteint, optimalité non prouvée (" + resultat.getIterations() + " nœuds explorés).");
             }
+        } else if (budget.dureeRestanteMillis() != Long.MAX_VALUE) {
+            System.out.println(resultat.getIterations() + " itérations en " + resultat.getDureeMillis() + " ms.");
         }
-        // Variables pour suivre la meilleure solution
-        Map<String, String> meilleureAffectation = new HashMap<>(affectations);
-        int meilleurCout = calculerCoutSolution();
-    
-        // Étape 2:Minimisation des jalousies
-        boolean amelioration;
-        do {
-            amelioration = false;
-            for (String colon : colons) {
-                for (String autreColon : colons) {
-                    if (!colon.equals(autreColon)) {
-                        String ressourceColon = affectations.get(colon);
-                        String ressourceAutre = affectations.get(autreColon);
-    
-                        // Échange des ressources
-                        affectations.put(colon, ressourceAutre);
-                        affectations.put(autreColon, ressourceColon);
-    
-                        // Calcul du nouveau coût
-                        int nouveauCout = calculerCoutSolution();
-    
-                        if (nouveauCout < meilleurCout) {
-                            // Mise à jour de la meilleure solution
-                            meilleurCout = nouveauCout;
-                            meilleureAffectation = new HashMap<>(affectations);
-                            amelioration = true;
-                        } else {
-                            // Annuler l'échange si pas d'amélioration
-                            affectations.put(colon, ressourceColon);
-                            affectations.put(autreColon, ressourceAutre);
-                        }
-                    }
-                }
+    }
+
+    private int lireDureeSecondes() {
+        while (true) {
+            System.out.print("Durée maximale de la recherche (en secondes): ");
+            try {
+                int duree = Integer.parseInt(sc.nextLine().trim());
+                if (duree > 0) return duree;
+            } catch (NumberFormatException e) {
+                // redemander
             }
-        } while (amelioration);
-    
-        // Affichage de la meilleure solution trouvée
-        affectations = meilleureAffectation;
-        afficherAffectations();
-        System.out.println("Coût de la solution : " + meilleurCout);
+            System.out.println("Veuillez saisir un nombre de secondes positif.");
+        }
     }
 
     /* Menu qui s'affiche lorsque l'utilisateur utilise un fichier */
@@ -738,47 +786,66 @@ public class Colonie {
         System.out.println("1 - Résolution automatique");
         System.out.println("2 - Sauvegarder la solution actuelle");
         System.out.println("3 - Fin");
+        if (enCours != null) {
+            System.out.println("4 - Arrêter la résolution en cours");
+            System.out.println("5 - Afficher la meilleure solution actuelle");
+        }
         System.out.print("Choix: ");
     }
 
     /*Calculer le cout d'une solution (le nombre de colons jaloux) */
     private int calculerCoutSolution() {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.CALCUL_COUT);
         int cout = 0;
-    
-        for (String colon : colons) {
-            String ressourceColon = affectations.get(colon);
-            List<String> preferencesColon = preferences.get(colon);
-    
-            if (preferencesColon != null && ressourceColon != null) {
-                int rangActuel = preferencesColon.indexOf(ressourceColon);
-    
-                for (String autreColon : colons) {
-                    if (sontEnConflit(colon, autreColon)) {
-                        String ressourceAutre = affectations.get(autreColon);
-                        int rangAutre = preferencesColon.indexOf(ressourceAutre);
-    
-                        if (rangAutre >= 0 && rangAutre < rangActuel) {
-                            cout++;
-                            break;
-                        }
-                    }
+        int[][] rang = instance.matriceRangs();
+        int[] ressourceDe = affectation.ressources();
+        int[] debut = instance.getConflits().debuts();
+        int[] voisins = instance.getConflits().voisins();
+
+        for (int c = 0; c < ressourceDe.length; c++) {
+            int[] rangColon = rang[c];
+            int rangActuel = rangColon[ressourceDe[c]];
+
+            // Seuls les voisins dans le graphe des conflits peuvent rendre le colon jaloux
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                if (rangColon[ressourceDe[voisins[i]]] < rangActuel) {
+                    cout++;
+                    break;
                 }
             }
         }
-    
+
+        Metriques.fin(phase, "affectation", ressourceDe.length, cout);
         return cout;
     }
 
     
     private void sauvegarderSolution() {
-        System.out.println("Veuillez entrer le nom du fichier pour sauvegarder la solution (par exemple : solution.txt) :");
+        System.out.println("Veuillez entrer le nom du fichier pour sauvegarder la solution (par exemple : solution.txt, ou solution.bin pour le format binaire) :");
         String nomFichier = sc.nextLine().trim();
+
+        if (nomFichier.endsWith(".bin")) {
+            // Format binaire : la permutation seule, dans l'ordre de déclaration des colons
+            if (affectation == null) {
+                System.out.println("Aucune solution à sauvegarder.");
+                return;
+            }
+            try {
+                FormatBinaire.ecrireSolution(affectation, nomFichier);
+                System.out.println("Solution sauvegardée avec succès dans le fichier : " + nomFichier);
+            } catch (IOException e) {
+                System.out.println("Une erreur est survenue lors de la sauvegarde de la solution : " + e.getMessage());
+            }
+            return;
+        }
     
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(nomFichier))) {
-            for (String colon : affectations.keySet()) {
-                String ressource = affectations.get(colon);
-                writer.write(colon + ":" + ressource);
-                writer.newLine();
+            if (affectation != null) {
+                TableNoms tableRessources = instance.getRessources();
+                for (int c = 0; c < affectation.taille(); c++) {
+                    writer.write(colons.get(c) + ":" + tableRessources.nom(affectation.ressourceDe(c)));
+                    writer.newLine();
+                }
             }
             System.out.println("Solution sauvegardée avec succès dans le fichier : " + nomFichier);
         } catch (IOException e) {
@@ -0,0 +1,224 @@
+package Modele;
+
+/**
+ * Moteur de calcul incrémental du coût (nombre de colons jaloux) d'une affectation complète.
+ * Pour chaque colon, on conserve le nombre de voisins dans le graphe des conflits qui détiennent
+ * une ressource qu'il préfère à la sienne ; il est jaloux si ce nombre est non nul.
+ * Lors d'un échange entre a et b, seuls a et b sont recalculés en entier (en O(degré)) ;
+ * pour leurs voisins, le compteur se met à jour en temps constant. Les listes de voisins du
+ * graphe étant triées, les voisins communs à a et b se repèrent par simple fusion.
+ */
+public class EvaluateurCout {
+    private final int[][] rang;
+    private final int[] debut;
+    private final int[] voisins;
+
+    private final Affectation affectation;
+    private final int[] ressourceDe;
+
+    /**
+     * nombreMieux[c] : nombre de voisins de c détenant une ressource mieux classée que la sienne.
+     */
+    private final int[] nombreMieux;
+    private int cout;
+    private long nombreEvaluations;
+
+    /**
+     * @param instance    instance compilée.
+     * @param affectation affectation suivie ; elle doit ensuite être modifiée uniquement à travers cet évaluateur.
+     */
+    public EvaluateurCout(Instance instance, Affectation affectation) {
+        this.rang = instance.matriceRangs();
+        this.debut = instance.getConflits().debuts();
+        this.voisins = instance.getConflits().voisins();
+        this.affectation = affectation;
+        this.ressourceDe = affectation.ressources();
+        this.nombreMieux = new int[ressourceDe.length];
+        recalculer();
+    }
+
+    private void recalculer() {
+        cout = 0;
+        for (int c = 0; c < nombreMieux.length; c++) {
+            nombreMieux[c] = compterMieux(c, ressourceDe[c], -1, -1);
+            if (nombreMieux[c] > 0) cout++;
+        }
+    }
+
+    public Affectation getAffectation() {
+        return affectation;
+    }
+
+    public int cout() {
+        return cout;
+    }
+
+    public boolean estJaloux(int colon) {
+        return nombreMieux[colon] > 0;
+    }
+
+    public int ressourceDe(int colon) {
+        return ressourceDe[colon];
+    }
+
+    /**
+     * @return les colons ayant au moins un conflit, par identifiant croissant. Échanger les ressources
+     * de deux colons qui n'en font pas partie ne change jamais le coût.
+     */
+    int[] colonsEnConflit() {
+        return Reduction.colonsEnConflit(debut);
+    }
+
+    /**
+     * @return le nombre de variations de coût évaluées depuis la création.
+     */
+    public long nombreEvaluations() {
+        return nombreEvaluations;
+    }
+
+    /**
+     * Ajoute des évaluations faites hors de {@link #deltaEchange(int, int)} (par exemple en parallèle).
+     */
+    public void ajouterEvaluations(long nombre) {
+        nombreEvaluations += nombre;
+    }
+
+    /**
+     * Calcule la variation de coût qu'entraînerait l'échange des ressources de {@code a} et {@code b},
+     * sans modifier l'état.
+     */
+    public int deltaEchange(int a, int b) {
+        nombreEvaluations++;
+        return variationEchange(a, b);
+    }
+
+    /**
+     * Comme {@link #deltaEchange(int, int)} mais sans compter l'évaluation : ne lit que l'état,
+     * et peut donc être appelée depuis plusieurs threads tant que personne ne modifie l'affectation.
+     */
+    public int variationEchange(int a, int b) {
+        int ra = ressourceDe[a];
+        int rb = ressourceDe[b];
+        int delta = variation(a, compterMieux(a, rb, b, ra))
+                + variation(b, compterMieux(b, ra, a, rb));
+
+        // Parcours simultané des deux listes de voisins, triées : les voisins communs à a et b
+        // voient les mêmes ressources avant et après l'échange, ils ne changent pas.
+        int i = debut[a];
+        int finA = debut[a + 1];
+        int j = debut[b];
+        int finB = debut[b + 1];
+        while (i < finA || j < finB) {
+            int va = i < finA ? voisins[i] : Integer.MAX_VALUE;
+            int vb = j < finB ? voisins[j] : Integer.MAX_VALUE;
+            if (va == vb) {
+                i++;
+                j++;
+            } else if (va < vb) {
+                if (va != b) delta += variation(va, compteApres(va, ra, rb));
+                i++;
+            } else {
+                if (vb != a) delta += variation(vb, compteApres(vb, rb, ra));
+                j++;
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Nouveau compteur du colon {@code v} si l'un de ses voisins passe de la ressource {@code ancienne}
+     * à {@code nouvelle}, sa propre ressource restant la même.
+     */
+    private int compteApres(int v, int ancienne, int nouvelle) {
+        int[] rangVoisin = rang[v];
+        int rangPropre = rangVoisin[ressourceDe[v]];
+        return nombreMieux[v]
+                - (rangVoisin[ancienne] < rangPropre ? 1 : 0)
+                + (rangVoisin[nouvelle] < rangPropre ? 1 : 0);
+    }
+
+    private int variation(int c, int nouveauCompte) {
+        boolean avant = nombreMieux[c] > 0;
+        boolean apres = nouveauCompte > 0;
+        if (avant == apres) return 0;
+        return apres ? 1 : -1;
+    }
+
+    /**
+     * Échange les ressources de {@code a} et {@code b} et met à jour la jalousie des colons concernés.
+     */
+    public void echanger(int a, int b) {
+        affectation.echanger(a, b);
+        actualiserApresEchange(a, b);
+        if (Metriques.ACTIVES) Metriques.echangeApplique();
+    }
+
+    /**
+     * Annule, dans l'affectation et dans l'état de jalousie, les échanges journalisés après la marque.
+     */
+    public void annulerJusqua(int marque) {
+        while (affectation.marque() > marque) {
+            int a = affectation.dernierColonA();
+            int b = affectation.dernierColonB();
+            affectation.annulerDernier();
+            actualiserApresEchange(a, b);
+        }
+    }
+
+    /**
+     * Remet l'affectation dans l'état d'un instantané et recalcule toutes les jalousies.
+     */
+    public void restaurer(int[] instantane) {
+        affectation.restaurer(instantane);
+        recalculer();
+    }
+
+    /**
+     * Met l'état à jour après que les ressources de {@code a} et {@code b} ont été échangées.
+     */
+    private void actualiserApresEchange(int a, int b) {
+        int ra = ressourceDe[b];
+        int rb = ressourceDe[a];
+        fixer(a, compterMieux(a, rb, -1, -1));
+        fixer(b, compterMieux(b, ra, -1, -1));
+        int i = debut[a];
+        int finA = debut[a + 1];
+        int j = debut[b];
+        int finB = debut[b + 1];
+        while (i < finA || j < finB) {
+            int va = i < finA ? voisins[i] : Integer.MAX_VALUE;
+            int vb = j < finB ? voisins[j] : Integer.MAX_VALUE;
+            if (va == vb) {
+                i++;
+                j++;
+            } else if (va < vb) {
+                if (va != b) fixer(va, compteApres(va, ra, rb));
+                i++;
+            } else {
+                if (vb != a) fixer(vb, compteApres(vb, rb, ra));
+                j++;
+            }
+        }
+    }
+
+    private void fixer(int c, int compte) {
+        cout += variation(c, compte);
+        nombreMieux[c] = compte;
+    }
+
+    /**
+     * Compte les voisins de {@code c} détenant une ressource que c préfère à {@code ressourcePropre} ;
+     * le voisin {@code remplace} (-1 : aucun) est considéré comme détenant {@code ressourceRemplacee}.
+     */
+    private int compterMieux(int c, int ressourcePropre, int remplace, int ressourceRemplacee) {
+        int[] rangColon = rang[c];
+        int rangPropre = rangColon[ressourcePropre];
+        int compte = 0;
+        for (int i = debut[c]; i < debut[c + 1]; i++) {
+            int v = voisins[i];
+            int rv = v == remplace ? ressourceRemplacee : ressourceDe[v];
+            if (rangColon[rv] < rangPropre) compte++;
+        }
+        return compte;
+    }
+}
@@ -0,0 +1,381 @@
+package Modele;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Format binaire versionné des instances et des solutions, pour éviter de relire le format texte
+ * à chaque résolution d'une même colonie.
+ * <p>
+ * Instance : en-tête ({@link #MAGIE_INSTANCE}, version, n, largeur des rangs, nombre d'arêtes), noms des
+ * colons puis des ressources (longueur et octets UTF-8), graphe des conflits au format CSR
+ * (n+1 débuts puis voisins), et enfin la matrice des rangs, ligne par ligne, en entiers de 1, 2 ou 4 octets.
+ * Solution : en-tête ({@link #MAGIE_SOLUTION}, version, n, largeur) puis la ressource de chaque colon.
+ * Les entiers sont écrits en gros-boutiste ; les fichiers sont relus par projection en mémoire.
+ */
+public final class FormatBinaire {
+    /**
+     * "COLI" : instance.
+     */
+    public static final int MAGIE_INSTANCE = 0x434F4C49;
+
+    /**
+     * "COLS" : solution.
+     */
+    public static final int MAGIE_SOLUTION = 0x434F4C53;
+
+    public static final int VERSION = 1;
+
+    private FormatBinaire() {
+    }
+
+    /**
+     * @return {@code true} si le fichier commence par l'en-tête d'une instance binaire.
+     */
+    public static boolean estInstanceBinaire(String nomFichier) {
+        return commencePar(nomFichier, MAGIE_INSTANCE);
+    }
+
+    /**
+     * @return {@code true} si le fichier commence par l'en-tête d'une solution binaire.
+     */
+    public static boolean estSolutionBinaire(String nomFichier) {
+        return commencePar(nomFichier, MAGIE_SOLUTION);
+    }
+
+    private static boolean commencePar(String nomFichier, int magie) {
+        try (FileChannel canal = FileChannel.open(Paths.get(nomFichier), StandardOpenOption.READ)) {
+            ByteBuffer debut = ByteBuffer.allocate(4);
+            while (debut.hasRemaining() && canal.read(debut) > 0) ;
+            return !debut.hasRemaining() && debut.getInt(0) == magie;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Écrit l'instance au format binaire.
+     */
+    public static void ecrireInstance(Instance instance, String nomFichier) throws IOException {
+        int n = instance.nombreColons();
+        GrapheConflits conflits = instance.getConflits();
+        int largeur = largeur(n);
+        try (DataOutputStream sortie = ouvrir(nomFichier)) {
+            sortie.writeInt(MAGIE_INSTANCE);
+            sortie.writeInt(VERSION);
+            sortie.writeInt(n);
+            sortie.writeInt(largeur);
+            sortie.writeInt(conflits.nombreAretes());
+            ecrireNoms(sortie, instance.getColons());
+            ecrireNoms(sortie, instance.getRessources());
+            for (int d : conflits.debuts()) sortie.writeInt(d);
+            for (int v : conflits.voisins()) sortie.writeInt(v);
+            for (int[] ligne : instance.matriceRangs()) {
+                ecrireEntiers(sortie, ligne, largeur);
+            }
+        }
+    }
+
+    /**
+     * Relit une instance binaire.
+     *
+     * @throws IOException si le fichier est illisible, d'une autre version ou incohérent.
+     */
+    public static Instance lireInstance(String nomFichier) throws IOException {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.LECTURE);
+        Instance instance = null;
+        try {
+            instance = decoderInstance(projeter(nomFichier));
+            return instance;
+        } finally {
+            Metriques.fin(phase, nomFichier, instance == null ? 0 : instance.nombreColons(), -1);
+        }
+    }
+
+    private static Instance decoderInstance(ByteBuffer octets) throws IOException {
+        try {
+            verifierEnTete(octets, MAGIE_INSTANCE, "instance");
+            int n = octets.getInt();
+            int largeur = octets.getInt();
+            int nombreAretes = octets.getInt();
+            verifier(n >= 0 && (largeur == 1 || largeur == 2 || largeur == 4) && nombreAretes >= 0, "en-tête incorrect");
+            // Tailles annoncées confrontées au fichier avant toute allocation, en long pour éviter les débordements :
+            // longueurs des noms, débuts, voisins, puis n lignes de n rangs
+            long taille = 8L * n + 4L * (n + 1) + 8L * nombreAretes;
+            verifier(taille <= octets.remaining()
+                    && (n == 0 || (long) n * largeur <= (octets.remaining() - taille) / n), "en-tête incorrect");
+            TableNoms colons = lireNoms(octets, n);
+            TableNoms ressources = lireNoms(octets, n);
+
+            int[] debut = new int[n + 1];
+            int[] voisins = new int[2 * nombreAretes];
+            octets.asIntBuffer().get(debut);
+            octets.position(octets.position() + 4 * debut.length);
+            octets.asIntBuffer().get(voisins);
+            octets.position(octets.position() + 4 * voisins.length);
+            verifier(debut[0] == 0 && debut[n] == voisins.length, "graphe des conflits incorrect");
+            for (int c = 0; c < n; c++) {
+                verifier(debut[c] <= debut[c + 1], "graphe des conflits incorrect");
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    verifier(voisins[i] >= 0 && voisins[i] < n && voisins[i] != c
+                            && (i == debut[c] || voisins[i - 1] < voisins[i]), "graphe des conflits incorrect");
+                }
+            }
+
+            GrapheConflits conflits = GrapheConflits.depuisCSR(debut, voisins);
+            // Symétrie : chaque relation doit figurer dans les listes de ses deux colons
+            int montantes = 0;
+            for (int c = 0; c < n; c++) {
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    if (c < voisins[i]) {
+                        montantes++;
+                    } else {
+                        verifier(conflits.sontVoisins(voisins[i], c), "graphe des conflits non symétrique");
+                    }
+                }
+            }
+            verifier(montantes == nombreAretes, "graphe des conflits non symétrique");
+
+            int[][] rang = new int[n][];
+            for (int c = 0; c < n; c++) {
+                rang[c] = lireEntiers(octets, n, largeur);
+            }
+            int[][] preferences = inverserPermutations(rang, "matrice des rangs incorrecte");
+            return new Instance(colons, ressources, preferences, rang, conflits);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("fichier binaire tronqué ou incorrect", e);
+        }
+    }
+
+    /**
+     * Écrit l'affectation (ressource de chaque colon) au format binaire.
+     */
+    public static void ecrireSolution(Affectation affectation, String nomFichier) throws IOException {
+        int n = affectation.taille();
+        int largeur = largeur(n);
+        try (DataOutputStream sortie = ouvrir(nomFichier)) {
+            sortie.writeInt(MAGIE_SOLUTION);
+            sortie.writeInt(VERSION);
+            sortie.writeInt(n);
+            sortie.writeInt(largeur);
+            ecrireEntiers(sortie, affectation.ressources(), largeur);
+        }
+    }
+
+    /**
+     * Relit une solution binaire.
+     *
+     * @throws IOException si le fichier est illisible ou ne contient pas une permutation.
+     */
+    public static Affectation lireSolution(String nomFichier) throws IOException {
+        ByteBuffer octets = projeter(nomFichier);
+        try {
+            verifierEnTete(octets, MAGIE_SOLUTION, "solution");
+            int n = octets.getInt();
+            int largeur = octets.getInt();
+            verifier(n >= 0 && (largeur == 1 || largeur == 2 || largeur == 4), "en-tête incorrect");
+            return new Affectation(lireEntiers(octets, n, largeur));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("fichier binaire tronqué ou incorrect", e);
+        }
+    }
+
+    /**
+     * Écrit l'instance dans la grammaire texte (colon, ressource, deteste, preferences).
+     */
+    public static void ecrireTexte(Instance instance, String nomFichier) throws IOException {
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        GrapheConflits conflits = instance.getConflits();
+        int[] debut = conflits.debuts();
+        int[] voisins = conflits.voisins();
+        int n = instance.nombreColons();
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(nomFichier), StandardCharsets.UTF_8)) {
+            StringBuilder ligne = new StringBuilder();
+            for (int c = 0; c < n; c++) {
+                writer.write("colon(" + colons.nom(c) + ").");
+                writer.newLine();
+            }
+            for (int r = 0; r < n; r++) {
+                writer.write("ressource(" + ressources.nom(r) + ").");
+                writer.newLine();
+            }
+            for (int c = 0; c < n; c++) {
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    if (c < voisins[i]) {
+                        writer.write("deteste(" + colons.nom(c) + "," + colons.nom(voisins[i]) + ").");
+                        writer.newLine();
+                    }
+                }
+            }
+            int[][] preferences = instance.matricePreferences();
+            for (int c = 0; c < n; c++) {
+                ligne.setLength(0);
+                ligne.append("preferences(").append(colons.nom(c));
+                for (int r : preferences[c]) {
+                    ligne.append(',').append(ressources.nom(r));
+                }
+                ligne.append(").");
+                writer.write(ligne.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Convertit une instance du format texte vers le format binaire, ou l'inverse selon le contenu de la source.
+     *
+     * @return {@code true} si la conversion a réussi (sinon l'erreur est affichée).
+     */
+    public static boolean convertir(String source, String destination) {
+        try {
+            if (estInstanceBinaire(source)) {
+                ecrireTexte(lireInstance(source), destination);
+            } else {
+                Instance instance = new LecteurColonie().lire(source);
+                if (instance == null) {
+                    return false;
+                }
+                ecrireInstance(instance, destination);
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Erreur lors de la conversion : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Point d'entrée du convertisseur : {@code FormatBinaire source destination}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage : FormatBinaire <source> <destination> (texte -> binaire ou binaire -> texte)");
+            return;
+        }
+        if (convertir(args[0], args[1])) {
+            System.out.println("Conversion terminée : " + args[1]);
+        }
+    }
+
+    /**
+     * Largeur en octets suffisante pour les entiers 0..n-1.
+     */
+    private static int largeur(int n) {
+        if (n <= 1 << 8) return 1;
+        if (n <= 1 << 16) return 2;
+        return 4;
+    }
+
+    private static DataOutputStream ouvrir(String nomFichier) throws IOException {
+        OutputStream flux = Files.newOutputStream(Paths.get(nomFichier));
+        return new DataOutputStream(new BufferedOutputStream(flux, 1 << 16));
+    }
+
+    private static void ecrireNoms(DataOutputStream sortie, TableNoms noms) throws IOException {
+        for (int i = 0; i < noms.taille(); i++) {
+            byte[] octets = noms.nom(i).getBytes(StandardCharsets.UTF_8);
+            sortie.writeInt(octets.length);
+            sortie.write(octets);
+        }
+    }
+
+    private static void ecrireEntiers(DataOutputStream sortie, int[] valeurs, int largeur) throws IOException {
+        for (int v : valeurs) {
+            if (largeur == 1) sortie.writeByte(v);
+            else if (largeur == 2) sortie.writeShort(v);
+            else sortie.writeInt(v);
+        }
+    }
+
+    private static ByteBuffer projeter(String nomFichier) throws IOException {
+        Path chemin = Paths.get(nomFichier);
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("fichier binaire de plus de 2 Go");
+            }
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+    }
+
+    private static void verifierEnTete(ByteBuffer octets, int magie, String nature) throws IOException {
+        verifier(octets.remaining() >= 8 && octets.getInt() == magie, "ce n'est pas un fichier de " + nature + " binaire");
+        int version = octets.getInt();
+        verifier(version == VERSION, "version " + version + " non prise en charge");
+    }
+
+    private static void verifier(boolean condition, String message) throws IOException {
+        if (!condition) {
+            throw new IOException(message);
+        }
+    }
+
+    private static TableNoms lireNoms(ByteBuffer octets, int n) throws IOException {
+        List<String> noms = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int longueur = octets.getInt();
+            verifier(longueur >= 0 && longueur <= octets.remaining(), "table des noms incorrecte");
+            byte[] nom = new byte[longueur];
+            octets.get(nom);
+            String texte = new String(nom, StandardCharsets.UTF_8);
+            // Les noms repassent par la grammaire texte (ecrireTexte) : mêmes règles que LecteurColonie
+            verifier(TableNoms.estNomValide(texte), "nom invalide");
+            noms.add(texte);
+        }
+        TableNoms table = new TableNoms(noms);
+        verifier(new HashSet<>(noms).size() == n, "noms en double");
+        return table;
+    }
+
+    /**
+     * Lit n entiers non signés de la largeur donnée, par copie en bloc depuis la projection.
+     */
+    private static int[] lireEntiers(ByteBuffer octets, int n, int largeur) {
+        int[] valeurs = new int[n];
+        if (largeur == 4) {
+            octets.asIntBuffer().get(valeurs);
+            octets.position(octets.position() + 4 * n);
+        } else if (largeur == 2) {
+            short[] courts = new short[n];
+            octets.asShortBuffer().get(courts);
+            octets.position(octets.position() + 2 * n);
+            for (int i = 0; i < n; i++) valeurs[i] = courts[i] & 0xFFFF;
+        } else {
+            byte[] brut = new byte[n];
+            octets.get(brut);
+            for (int i = 0; i < n; i++) valeurs[i] = brut[i] & 0xFF;
+        }
+        return valeurs;
+    }
+
+    /**
+     * Inverse chaque ligne en vérifiant qu'elle est une permutation de 0..n-1.
+     */
+    private static int[][] inverserPermutations(int[][] lignes, String message) throws IOException {
+        int n = lignes.length;
+        int[][] inverses = new int[n][n];
+        for (int c = 0; c < n; c++) {
+            int[] inverse = inverses[c];
+            Arrays.fill(inverse, -1);
+            int[] ligne = lignes[c];
+            for (int k = 0; k < n; k++) {
+                int v = ligne[k];
+                verifier(v >= 0 && v < n && inverse[v] == -1, message);
+                inverse[v] = k;
+            }
+        }
+        return inverses;
+    }
+}
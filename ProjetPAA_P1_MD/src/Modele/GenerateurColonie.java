@@ -0,0 +1,213 @@
+package Modele;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Générateur de colonies synthétiques, pour les mesures de performance.
+ * <p>
+ * Le graphe des conflits a un degré moyen donné et l'une des formes suivantes : aléatoire uniforme,
+ * par groupes (la plupart des conflits à l'intérieur de groupes d'environ √n colons) ou en étoile
+ * (chaque conflit touche l'un des rares colons centraux). Les listes de préférences sont des perturbations
+ * d'un classement commun : avec une corrélation de 1 tous les colons ont la même liste, avec 0 les listes
+ * sont des permutations uniformes indépendantes.
+ * <p>
+ * La génération est déterministe pour une graine donnée.
+ * <p>
+ * Limites de taille : une {@link Instance} garde les matrices n×n des préférences et des rangs, soit
+ * {@link #memoireInstance 8·n² octets} (800 Mo pour 10 000 colons, 3,2 Go pour 20 000, 80 Go pour 100 000).
+ * {@link #generer} refuse une taille dont les matrices dépassent le tas de la JVM. {@link #ecrire} n'a
+ * besoin que d'une liste de préférences à la fois, mais le fichier est lui aussi quadratique (environ
+ * 6·n² octets pour n = 10 000), et sa relecture construit les mêmes matrices.
+ */
+public class GenerateurColonie {
+
+    public enum Forme {
+        ALEATOIRE, GROUPES, ETOILE
+    }
+
+    /**
+     * Part des conflits tirés à l'intérieur d'un groupe, pour la forme {@link Forme#GROUPES}.
+     */
+    private static final double PART_INTRA_GROUPE = 0.9;
+
+    private final int n;
+    private final double degreMoyen;
+    private final Forme forme;
+    private final double correlation;
+    private final long graine;
+
+    /**
+     * @param n           nombre de colons (et de ressources).
+     * @param degreMoyen  nombre moyen de conflits par colon.
+     * @param forme       forme du graphe des conflits.
+     * @param correlation ressemblance des listes de préférences, entre 0 et 1.
+     * @param graine      graine du générateur pseudo-aléatoire.
+     */
+    public GenerateurColonie(int n, double degreMoyen, Forme forme, double correlation, long graine) {
+        if (n < 1 || degreMoyen < 0 || correlation < 0 || correlation > 1) {
+            throw new IllegalArgumentException("Paramètres de génération incorrects.");
+        }
+        this.n = n;
+        this.degreMoyen = Math.min(degreMoyen, n - 1);
+        this.forme = forme;
+        this.correlation = correlation;
+        this.graine = graine;
+    }
+
+    /**
+     * @return les octets occupés par les matrices des préférences et des rangs d'une instance de n colons.
+     */
+    public static long memoireInstance(int n) {
+        return 8L * n * n;
+    }
+
+    /**
+     * @return l'instance générée, directement en mémoire.
+     * @throws IllegalArgumentException si ses matrices ne tiennent pas dans le tas ({@link #memoireInstance}).
+     */
+    public Instance generer() {
+        long requis = memoireInstance(n);
+        long tas = Runtime.getRuntime().maxMemory();
+        if (requis > tas) {
+            throw new IllegalArgumentException("Colonie de " + n + " colons trop grande : ses matrices occupent "
+                    + (requis >> 20) + " Mo pour " + (tas >> 20) + " Mo de tas (option -Xmx).");
+        }
+        int[] base = classementCommun();
+        int[][] preferences = new int[n][];
+        for (int c = 0; c < n; c++) {
+            preferences[c] = preferencesDe(c, base);
+        }
+        return new Instance(new TableNoms(noms("C")), new TableNoms(noms("R")), preferences, conflits().construire(n));
+    }
+
+    /**
+     * Écrit la colonie générée dans la grammaire des fichiers (colon, ressource, deteste, preferences).
+     */
+    public void ecrire(String nomFichier) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(nomFichier), StandardCharsets.UTF_8)) {
+            for (int c = 0; c < n; c++) {
+                writer.write("colon(C" + c + ").");
+                writer.newLine();
+            }
+            for (int r = 0; r < n; r++) {
+                writer.write("ressource(R" + r + ").");
+                writer.newLine();
+            }
+            GrapheConflits graphe = conflits().construire(n);
+            int[] debut = graphe.debuts();
+            int[] voisins = graphe.voisins();
+            for (int c = 0; c < n; c++) {
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    if (c < voisins[i]) {
+                        writer.write("deteste(C" + c + ",C" + voisins[i] + ").");
+                        writer.newLine();
+                    }
+                }
+            }
+            int[] base = classementCommun();
+            StringBuilder ligne = new StringBuilder();
+            for (int c = 0; c < n; c++) {
+                ligne.setLength(0);
+                ligne.append("preferences(C").append(c);
+                for (int r : preferencesDe(c, base)) {
+                    ligne.append(",R").append(r);
+                }
+                ligne.append(").");
+                writer.write(ligne.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private List<String> noms(String prefixe) {
+        List<String> noms = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) noms.add(prefixe + i);
+        return noms;
+    }
+
+    private GrapheConflits.Constructeur conflits() {
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        GrapheConflits.Constructeur conflits = new GrapheConflits.Constructeur();
+        long voulues = Math.round(n * degreMoyen / 2);
+        int tailleGroupe = Math.max(2, (int) Math.sqrt(n));
+        int nombreCentres = Math.max(1, n / 100);
+        long ajoutees = 0;
+        // Les tirages en double sont rejetés ; la limite évite de boucler sur un graphe presque complet
+        for (long essais = 0; ajoutees < voulues && essais < 20 * voulues + 100; essais++) {
+            int a;
+            int b;
+            switch (forme) {
+                case GROUPES:
+                    a = aleatoire.nextInt(n);
+                    if (aleatoire.nextDouble() < PART_INTRA_GROUPE) {
+                        int debutGroupe = a - a % tailleGroupe;
+                        b = debutGroupe + aleatoire.nextInt(Math.min(tailleGroupe, n - debutGroupe));
+                    } else {
+                        b = aleatoire.nextInt(n);
+                    }
+                    break;
+                case ETOILE:
+                    a = aleatoire.nextInt(nombreCentres);
+                    b = aleatoire.nextInt(n);
+                    break;
+                default:
+                    a = aleatoire.nextInt(n);
+                    b = aleatoire.nextInt(n);
+            }
+            if (conflits.ajouter(a, b)) ajoutees++;
+        }
+        return conflits;
+    }
+
+    private int[] classementCommun() {
+        int[] base = new int[n];
+        for (int i = 0; i < n; i++) base[i] = i;
+        melanger(base, n, new SplittableRandom(graine ^ 0x5DEECE66DL));
+        return base;
+    }
+
+    /**
+     * Liste du colon : le classement commun mélangé dans une fenêtre glissante d'autant plus large
+     * que la corrélation est faible (fenêtre n : mélange de Fisher-Yates complet).
+     */
+    private int[] preferencesDe(int colon, int[] base) {
+        int[] liste = base.clone();
+        int fenetre = Math.max(1, (int) Math.round((1 - correlation) * n));
+        melanger(liste, fenetre, new SplittableRandom(graine + 0x9E3779B97F4A7C15L * (colon + 1)));
+        return liste;
+    }
+
+    private static void melanger(int[] t, int fenetre, SplittableRandom aleatoire) {
+        for (int i = 0; i < t.length - 1; i++) {
+            int j = i + aleatoire.nextInt(Math.min(fenetre, t.length - i));
+            int temp = t[i];
+            t[i] = t[j];
+            t[j] = temp;
+        }
+    }
+
+    /**
+     * Usage : {@code GenerateurColonie n degreMoyen aleatoire|groupes|etoile correlation graine fichier}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 6) {
+            System.out.println("Usage : GenerateurColonie <n> <degreMoyen> <aleatoire|groupes|etoile> <correlation 0..1> <graine> <fichier>");
+            return;
+        }
+        try {
+            GenerateurColonie generateur = new GenerateurColonie(Integer.parseInt(args[0]), Double.parseDouble(args[1]),
+                    Forme.valueOf(args[2].toUpperCase(Locale.ROOT)), Double.parseDouble(args[3]), Long.parseLong(args[4]));
+            generateur.ecrire(args[5]);
+            System.out.println("Colonie générée : " + args[5]);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Paramètres incorrects : " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Erreur lors de l'écriture du fichier : " + e.getMessage());
+        }
+    }
+}
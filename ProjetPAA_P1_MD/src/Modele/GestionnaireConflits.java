@@ -1,22 +1,72 @@
 package Modele;
 
-import java.util.*;
+import java.util.Arrays;
 
+/**
+ * Relations "deteste" entre colons désignés par leur identifiant, en cours de saisie.
+ * Chaque colon garde la liste de ses voisins ; le test de conflit passe par la table d'arêtes
+ * de {@link GrapheConflits.Constructeur}, en temps constant.
+ */
 public class GestionnaireConflits {
-    private Set<String> conflits = new HashSet<>();
+    private final GrapheConflits.Constructeur aretes = new GrapheConflits.Constructeur();
+    private int[][] voisins = new int[16][];
+    private int[] degres = new int[16];
+    private int nombreConflits;
 
-    public void ajouterConflit(char colon1, char colon2) {
-        String relation = colon1 + "-" + colon2;
-        conflits.add(relation);
+    /**
+     * Ajoute un conflit entre deux colons.
+     *
+     * @return {@code false} si le conflit existait déjà ou relie un colon à lui-même.
+     */
+    public boolean ajouterConflit(int colon1, int colon2) {
+        if (!aretes.ajouter(colon1, colon2)) {
+            return false;
+        }
+        ajouterVoisin(colon1, colon2);
+        ajouterVoisin(colon2, colon1);
+        nombreConflits++;
+        return true;
     }
 
-    public boolean estEnConflit(char colon1, char colon2) {
-        String relation1 = colon1 + "-" + colon2;
-        String relation2 = colon2 + "-" + colon1;
-        return conflits.contains(relation1) || conflits.contains(relation2);
+    public boolean estEnConflit(int colon1, int colon2) {
+        return aretes.contient(colon1, colon2);
     }
 
-    public Set<String> getConflits() {
-        return conflits;
+    public int nombreConflits() {
+        return nombreConflits;
+    }
+
+    public int degre(int colon) {
+        return colon < degres.length ? degres[colon] : 0;
+    }
+
+    /**
+     * @return le i-ème voisin du colon, dans l'ordre d'ajout des conflits.
+     */
+    public int voisin(int colon, int i) {
+        return voisins[colon][i];
+    }
+
+    /**
+     * @param nombreColons nombre total de colons (les identifiants doivent être inférieurs).
+     * @return le graphe compact des conflits saisis.
+     */
+    public GrapheConflits construireGraphe(int nombreColons) {
+        return aretes.construire(nombreColons);
+    }
+
+    private void ajouterVoisin(int colon, int voisin) {
+        if (colon >= voisins.length) {
+            int taille = Math.max(colon + 1, voisins.length * 2);
+            voisins = Arrays.copyOf(voisins, taille);
+            degres = Arrays.copyOf(degres, taille);
+        }
+        int[] liste = voisins[colon];
+        if (liste == null) {
+            liste = voisins[colon] = new int[4];
+        } else if (degres[colon] == liste.length) {
+            liste = voisins[colon] = Arrays.copyOf(liste, liste.length * 2);
+        }
+        liste[degres[colon]++] = voisin;
     }
 }
@@ -0,0 +1,233 @@
+package Modele;
+
+import java.util.Arrays;
+
+/**
+ * Graphe des conflits entre colons, stocké en listes d'adjacence compactes (format CSR) :
+ * les voisins du colon c occupent {@code voisins[debut[c] .. debut[c+1]-1]}, par identifiant croissant.
+ * Le test d'adjacence passe par une table de hachage d'arêtes et se fait en temps constant.
+ */
+public final class GrapheConflits {
+    private final int[] debut;
+    private final int[] voisins;
+    private final TableAretes aretes;
+
+    private GrapheConflits(int[] debut, int[] voisins, TableAretes aretes) {
+        this.debut = debut;
+        this.voisins = voisins;
+        this.aretes = aretes;
+    }
+
+    public int nombreColons() {
+        return debut.length - 1;
+    }
+
+    public int nombreAretes() {
+        return voisins.length / 2;
+    }
+
+    public int degre(int colon) {
+        return debut[colon + 1] - debut[colon];
+    }
+
+    /**
+     * @return {@code true} si les deux colons se détestent (relation symétrique).
+     */
+    public boolean sontVoisins(int a, int b) {
+        return a != b && aretes.contient(cle(a, b));
+    }
+
+    /**
+     * Tableau des positions de départ (taille n+1) ; ne pas modifier.
+     */
+    int[] debuts() {
+        return debut;
+    }
+
+    /**
+     * Tableau concaténé des voisins ; ne pas modifier.
+     */
+    int[] voisins() {
+        return voisins;
+    }
+
+    /**
+     * @return une copie des voisins du colon.
+     */
+    public int[] voisinsDe(int colon) {
+        return Arrays.copyOfRange(voisins, debut[colon], debut[colon + 1]);
+    }
+
+    /**
+     * Reconstruit un graphe à partir de ses tableaux CSR (voisins triés, relation symétrique), tels que
+     * renvoyés par {@link #debuts()} et {@link #voisins()} ; les tableaux ne sont pas copiés.
+     */
+    static GrapheConflits depuisCSR(int[] debut, int[] voisins) {
+        TableAretes aretes = new TableAretes(voisins.length / 2);
+        for (int c = 0; c + 1 < debut.length; c++) {
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                if (c < voisins[i]) {
+                    aretes.ajouter(cle(c, voisins[i]));
+                }
+            }
+        }
+        return new GrapheConflits(debut, voisins, aretes);
+    }
+
+    /**
+     * Produit un nouveau graphe en ajoutant et retirant des relations ; ce graphe n'est pas modifié.
+     * Les relations ajoutées doivent être absentes et les relations retirées présentes.
+     *
+     * @param ajouts   extrémités des relations ajoutées, par paires (a0, b0, a1, b1...).
+     * @param retraits extrémités des relations retirées, par paires.
+     */
+    GrapheConflits modifier(int[] ajouts, int[] retraits) {
+        int n = nombreColons();
+        int[] nouveauDebut = new int[n + 1];
+        for (int c = 0; c < n; c++) nouveauDebut[c + 1] = debut[c + 1] - debut[c];
+        for (int v : ajouts) nouveauDebut[v + 1]++;
+        for (int v : retraits) nouveauDebut[v + 1]--;
+        for (int c = 0; c < n; c++) nouveauDebut[c + 1] += nouveauDebut[c];
+
+        TableAretes retirees = new TableAretes(retraits.length / 2);
+        for (int i = 0; i < retraits.length; i += 2) retirees.ajouter(cle(retraits[i], retraits[i + 1]));
+        int[] nouveauxVoisins = new int[nouveauDebut[n]];
+        int[] position = Arrays.copyOf(nouveauDebut, n);
+        for (int c = 0; c < n; c++) {
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                if (retraits.length == 0 || !retirees.contient(cle(c, voisins[i]))) {
+                    nouveauxVoisins[position[c]++] = voisins[i];
+                }
+            }
+        }
+        // Les voisins conservés restent triés : seuls les colons ayant gagné une relation sont à retrier
+        for (int i = 0; i < ajouts.length; i += 2) {
+            nouveauxVoisins[position[ajouts[i]]++] = ajouts[i + 1];
+            nouveauxVoisins[position[ajouts[i + 1]]++] = ajouts[i];
+        }
+        for (int v : ajouts) {
+            Arrays.sort(nouveauxVoisins, nouveauDebut[v], nouveauDebut[v + 1]);
+        }
+        return depuisCSR(nouveauDebut, nouveauxVoisins);
+    }
+
+    private static long cle(int a, int b) {
+        int min = Math.min(a, b);
+        int max = Math.max(a, b);
+        return ((long) min << 32) | max;
+    }
+
+    /**
+     * Accumule les relations "deteste" puis produit le graphe compact.
+     */
+    public static final class Constructeur {
+        private final TableAretes aretes = new TableAretes(16);
+        private int[] extremites = new int[32];
+        private int nombre;
+
+        /**
+         * Ajoute une relation entre deux colons.
+         *
+         * @return {@code false} si la relation existait déjà ou relie un colon à lui-même.
+         */
+        public boolean ajouter(int a, int b) {
+            if (a == b || !aretes.ajouter(cle(a, b))) {
+                return false;
+            }
+            if (2 * nombre + 2 > extremites.length) {
+                extremites = Arrays.copyOf(extremites, extremites.length * 2);
+            }
+            extremites[2 * nombre] = a;
+            extremites[2 * nombre + 1] = b;
+            nombre++;
+            return true;
+        }
+
+        public boolean contient(int a, int b) {
+            return a != b && aretes.contient(cle(a, b));
+        }
+
+        /**
+         * @param nombreColons nombre total de colons (les identifiants doivent être inférieurs).
+         * @return le graphe au format CSR.
+         */
+        public GrapheConflits construire(int nombreColons) {
+            int[] debut = new int[nombreColons + 1];
+            for (int i = 0; i < 2 * nombre; i++) {
+                debut[extremites[i] + 1]++;
+            }
+            for (int c = 0; c < nombreColons; c++) {
+                debut[c + 1] += debut[c];
+            }
+            int[] position = Arrays.copyOf(debut, nombreColons);
+            int[] voisins = new int[2 * nombre];
+            for (int e = 0; e < nombre; e++) {
+                int a = extremites[2 * e];
+                int b = extremites[2 * e + 1];
+                voisins[position[a]++] = b;
+                voisins[position[b]++] = a;
+            }
+            for (int c = 0; c < nombreColons; c++) {
+                Arrays.sort(voisins, debut[c], debut[c + 1]);
+            }
+            return new GrapheConflits(debut, voisins, aretes);
+        }
+    }
+
+    /**
+     * Ensemble de clés {@code long} non nulles à adressage ouvert (sondage linéaire).
+     */
+    private static final class TableAretes {
+        private long[] cles;
+        private int taille;
+
+        TableAretes(int capacite) {
+            cles = new long[Integer.highestOneBit(Math.max(capacite, 2) * 2 - 1)];
+        }
+
+        boolean contient(long cle) {
+            int masque = cles.length - 1;
+            for (int i = hacher(cle) & masque; ; i = (i + 1) & masque) {
+                long k = cles[i];
+                if (k == cle) return true;
+                if (k == 0) return false;
+            }
+        }
+
+        boolean ajouter(long cle) {
+            if (2 * (taille + 1) > cles.length) {
+                agrandir();
+            }
+            int masque = cles.length - 1;
+            for (int i = hacher(cle) & masque; ; i = (i + 1) & masque) {
+                long k = cles[i];
+                if (k == cle) return false;
+                if (k == 0) {
+                    cles[i] = cle;
+                    taille++;
+                    return true;
+                }
+            }
+        }
+
+        private void agrandir() {
+            long[] anciennes = cles;
+            cles = new long[anciennes.length * 2];
+            int masque = cles.length - 1;
+            for (long k : anciennes) {
+                if (k != 0) {
+                    int i = hacher(k) & masque;
+                    while (cles[i] != 0) i = (i + 1) & masque;
+                    cles[i] = k;
+                }
+            }
+        }
+
+        private static int hacher(long cle) {
+            cle ^= cle >>> 33;
+            cle *= 0xff51afd7ed558ccdL;
+            cle ^= cle >>> 33;
+            return (int) cle;
+        }
+    }
+}
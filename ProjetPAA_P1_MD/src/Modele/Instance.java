@@ -0,0 +1,119 @@
+package Modele;
+
+import java.util.*;
+
+/**
+ * Forme compilée d'une colonie : colons et ressources reçoivent des identifiants 0..n-1
+ * et la matrice des rangs est calculée une seule fois, de sorte que comparer deux ressources
+ * pour un colon se réduit à une lecture de tableau.
+ */
+public final class Instance {
+    private final TableNoms colons;
+    private final TableNoms ressources;
+
+    /**
+     * rang[c][r] : position de la ressource r dans la liste de préférences du colon c (0 = préférée).
+     */
+    private final int[][] rang;
+
+    /**
+     * preferences[c][k] : ressource classée en position k par le colon c.
+     */
+    private final int[][] preferences;
+
+    /**
+     * Relations "deteste" entre colons.
+     */
+    private final GrapheConflits conflits;
+
+    Instance(TableNoms colons, TableNoms ressources, int[][] preferences, GrapheConflits conflits) {
+        this(colons, ressources, preferences, inverser(preferences, ressources.taille()), conflits);
+    }
+
+    /**
+     * @param rang matrice des rangs, inverse de {@code preferences} ligne par ligne (non vérifié).
+     */
+    Instance(TableNoms colons, TableNoms ressources, int[][] preferences, int[][] rang, GrapheConflits conflits) {
+        this.colons = colons;
+        this.ressources = ressources;
+        this.preferences = preferences;
+        this.rang = rang;
+        this.conflits = conflits;
+    }
+
+    /**
+     * Inverse chaque ligne : si {@code lignes[c][k] = r}, alors {@code resultat[c][r] = k}.
+     */
+    static int[][] inverser(int[][] lignes, int n) {
+        int[][] resultat = new int[lignes.length][n];
+        for (int c = 0; c < lignes.length; c++) {
+            int[] ligne = lignes[c];
+            int[] inverse = resultat[c];
+            for (int k = 0; k < ligne.length; k++) {
+                inverse[ligne[k]] = k;
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Compile une colonie décrite par noms.
+     *
+     * @param colons      noms des colons.
+     * @param ressources  noms des ressources.
+     * @param preferences liste complète de préférences de chaque colon.
+     * @param conflits    relations entre colons, indexées par position dans {@code colons}.
+     * @return l'instance compilée.
+     */
+    public static Instance compiler(List<String> colons, List<String> ressources, Map<String, List<String>> preferences,
+                                    GrapheConflits.Constructeur conflits) {
+        TableNoms tableColons = new TableNoms(colons);
+        TableNoms tableRessources = new TableNoms(ressources);
+        int[][] prefs = new int[colons.size()][];
+        for (int c = 0; c < colons.size(); c++) {
+            List<String> liste = preferences.get(colons.get(c));
+            prefs[c] = new int[liste.size()];
+            for (int k = 0; k < liste.size(); k++) {
+                prefs[c][k] = tableRessources.id(liste.get(k));
+            }
+        }
+        return new Instance(tableColons, tableRessources, prefs, conflits.construire(colons.size()));
+    }
+
+    public int nombreColons() {
+        return colons.taille();
+    }
+
+    public TableNoms getColons() {
+        return colons;
+    }
+
+    public TableNoms getRessources() {
+        return ressources;
+    }
+
+    public GrapheConflits getConflits() {
+        return conflits;
+    }
+
+    /**
+     * @return le rang de la ressource {@code ressource} pour le colon {@code colon} (0 = préférée).
+     */
+    public int rang(int colon, int ressource) {
+        return rang[colon][ressource];
+    }
+
+    /**
+     * Accès direct à la matrice des rangs pour les boucles critiques ; ne pas modifier.
+     */
+    int[][] matriceRangs() {
+        return rang;
+    }
+
+    /**
+     * Accès direct aux listes de préférences (ressources par rang) ; ne pas modifier.
+     */
+    int[][] matricePreferences() {
+        return preferences;
+    }
+}
@@ -0,0 +1,207 @@
+package Modele;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture et écriture minimales de JSON pour le {@link ServeurResolution} : objets ({@link Map}, clés dans
+ * l'ordre du texte), tableaux ({@link List}), chaînes, nombres ({@link Double}), booléens et {@code null}.
+ * La lecture est récursive : l'imbrication des objets et tableaux est limitée à {@link #PROFONDEUR_MAX}.
+ */
+final class Json {
+    /**
+     * Nombre maximal d'objets et tableaux imbriqués ; une colonie n'en demande que trois.
+     */
+    static final int PROFONDEUR_MAX = 64;
+
+    private final String texte;
+    private int position;
+    private int profondeur;
+
+    private Json(String texte) {
+        this.texte = texte;
+    }
+
+    /**
+     * @return la valeur décrite par le texte.
+     * @throws FormatIncorrectException si le texte n'est pas un JSON valide.
+     */
+    static Object lire(String texte) throws FormatIncorrectException {
+        Json lecteur = new Json(texte);
+        Object valeur = lecteur.valeur();
+        lecteur.espaces();
+        if (lecteur.position < texte.length()) throw lecteur.erreur("fin du texte attendue");
+        return valeur;
+    }
+
+    /**
+     * @return la chaîne entre guillemets, échappée.
+     */
+    static String chaine(String valeur) {
+        StringBuilder sb = new StringBuilder(valeur.length() + 2).append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private Object valeur() throws FormatIncorrectException {
+        espaces();
+        if (position >= texte.length()) throw erreur("valeur attendue");
+        char c = texte.charAt(position);
+        switch (c) {
+            case '{':
+            case '[':
+                if (++profondeur > PROFONDEUR_MAX) throw erreur("imbrication de plus de " + PROFONDEUR_MAX + " niveaux");
+                Object conteneur = c == '{' ? objet() : tableau();
+                profondeur--;
+                return conteneur;
+            case '"':
+                return chaine();
+            case 't':
+                mot("true");
+                return Boolean.TRUE;
+            case 'f':
+                mot("false");
+                return Boolean.FALSE;
+            case 'n':
+                mot("null");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return nombre();
+                throw erreur("caractère inattendu '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> objet() throws FormatIncorrectException {
+        Map<String, Object> objet = new LinkedHashMap<>();
+        position++;
+        espaces();
+        if (suivant('}')) return objet;
+        do {
+            espaces();
+            if (position >= texte.length() || texte.charAt(position) != '"') throw erreur("clé attendue");
+            String cle = chaine();
+            espaces();
+            if (!suivant(':')) throw erreur("':' attendu");
+            objet.put(cle, valeur());
+            espaces();
+        } while (suivant(','));
+        if (!suivant('}')) throw erreur("',' ou '}' attendu");
+        return objet;
+    }
+
+    private List<Object> tableau() throws FormatIncorrectException {
+        List<Object> tableau = new ArrayList<>();
+        position++;
+        espaces();
+        if (suivant(']')) return tableau;
+        do {
+            tableau.add(valeur());
+            espaces();
+        } while (suivant(','));
+        if (!suivant(']')) throw erreur("',' ou ']' attendu");
+        return tableau;
+    }
+
+    private String chaine() throws FormatIncorrectException {
+        StringBuilder sb = new StringBuilder();
+        position++;
+        while (position < texte.length()) {
+            char c = texte.charAt(position++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (position >= texte.length()) break;
+            char e = texte.charAt(position++);
+            switch (e) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > texte.length()) throw erreur("échappement \\u incomplet");
+                    try {
+                        sb.append((char) Integer.parseInt(texte.substring(position, position + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw erreur("échappement \\u incorrect");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    sb.append(e);
+            }
+        }
+        throw erreur("chaîne non terminée");
+    }
+
+    private Double nombre() throws FormatIncorrectException {
+        int debut = position;
+        while (position < texte.length() && "+-0123456789.eE".indexOf(texte.charAt(position)) >= 0) position++;
+        try {
+            return Double.valueOf(texte.substring(debut, position));
+        } catch (NumberFormatException e) {
+            position = debut;
+            throw erreur("nombre incorrect");
+        }
+    }
+
+    private void mot(String mot) throws FormatIncorrectException {
+        if (!texte.startsWith(mot, position)) throw erreur("valeur inconnue");
+        position += mot.length();
+    }
+
+    private boolean suivant(char c) {
+        if (position < texte.length() && texte.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void espaces() {
+        while (position < texte.length() && Character.isWhitespace(texte.charAt(position))) position++;
+    }
+
+    private FormatIncorrectException erreur(String message) {
+        return new FormatIncorrectException("JSON incorrect (position " + position + ") : " + message + ".");
+    }
+}
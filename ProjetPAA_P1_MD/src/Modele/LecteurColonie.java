@@ -0,0 +1,636 @@
+package Modele;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Lecture rapide d'un fichier de colonie (colon, ressource, deteste, preferences) en une seule passe
+ * sur les octets du fichier. Les noms sont cherchés dans des tables de hachage directement sur les octets,
+ * sans créer de chaîne, et les doublons dans une liste de préférences sont détectés par un ensemble de bits.
+ * L'ordre des sections et les messages d'erreur sont ceux de la lecture ligne à ligne d'origine.
+ * <p>
+ * Le fichier est projeté en mémoire ({@link FileChannel#map}) par segments coupés en fin de ligne.
+ * L'en-tête (colons, ressources, conflits) est lu séquentiellement ; la section des préférences, qui
+ * domine la taille du fichier, est découpée en morceaux de lignes complètes analysés en parallèle,
+ * chacun écrivant directement ses lignes de la matrice des préférences. En cas d'erreur, c'est la
+ * première dans l'ordre du fichier qui est affichée, comme en lecture séquentielle.
+ */
+public class LecteurColonie {
+    private static final byte[] MOT_COLON = "colon(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOT_RESSOURCE = "ressource(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOT_DETESTE = "deteste(".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOT_PREFERENCES = "preferences(".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Taille maximale d'un segment projeté en mémoire.
+     */
+    private static final int TAILLE_SEGMENT = 1 << 30;
+
+    /**
+     * Taille visée pour un morceau de la section des préférences confié à un thread.
+     */
+    private static final int TAILLE_MORCEAU = 4 << 20;
+
+    /**
+     * Enumération pour suivre la section actuelle lors de la lecture du fichier.
+     */
+    private enum Section {
+        NONE, COLON, RESSOURCE, DETESTE, PREFERENCES
+    }
+
+    private Section sectionCourante;
+    private TableSymboles colons;
+    private TableSymboles ressources;
+    private GrapheConflits.Constructeur conflits;
+    private int[][] preferences;
+    private String derniereErreur;
+
+    /**
+     * Lit le fichier de configuration et construit l'instance.
+     *
+     * @param nomFichier Chemin vers le fichier de configuration.
+     * @return l'instance lue, ou {@code null} si le fichier est incorrect (l'erreur est affichée).
+     */
+    public Instance lire(String nomFichier) {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.LECTURE);
+        Instance instance;
+        try (FileChannel canal = FileChannel.open(Paths.get(nomFichier), StandardOpenOption.READ)) {
+            instance = analyser(projeter(canal));
+        } catch (IOException e) {
+            afficherErreur("Erreur lors de la lecture du fichier : " + e.getMessage());
+            instance = null;
+        }
+        Metriques.fin(phase, nomFichier, instance == null ? 0 : instance.nombreColons(), -1);
+        return instance;
+    }
+
+    /**
+     * Analyse le contenu d'un fichier de colonie déjà en mémoire.
+     *
+     * @return l'instance lue, ou {@code null} si le contenu est incorrect (l'erreur est affichée).
+     */
+    public Instance analyser(byte[] contenu) {
+        return analyser(Collections.singletonList(ByteBuffer.wrap(contenu)));
+    }
+
+    /**
+     * Projette le fichier en segments d'au plus {@link #TAILLE_SEGMENT} octets, chacun se terminant
+     * par une fin de ligne (sauf le dernier).
+     */
+    private static List<ByteBuffer> projeter(FileChannel canal) throws IOException {
+        List<ByteBuffer> segments = new ArrayList<>();
+        long taille = canal.size();
+        long debut = 0;
+        while (debut < taille) {
+            int longueur = (int) Math.min(TAILLE_SEGMENT, taille - debut);
+            ByteBuffer segment = canal.map(FileChannel.MapMode.READ_ONLY, debut, longueur);
+            if (debut + longueur < taille) {
+                int fin = longueur;
+                while (fin > 0 && segment.get(fin - 1) != '\n') fin--;
+                if (fin == 0) {
+                    throw new IOException("ligne de plus de " + TAILLE_SEGMENT + " octets");
+                }
+                longueur = fin;
+                segment.limit(longueur);
+            }
+            segments.add(segment);
+            debut += longueur;
+        }
+        return segments;
+    }
+
+    /**
+     * @return le message de la dernière erreur affichée par {@link #lire} ou {@link #analyser}, ou {@code null}.
+     */
+    public String getDerniereErreur() {
+        return derniereErreur;
+    }
+
+    private void afficherErreur(String message) {
+        derniereErreur = message;
+        System.out.println(message);
+    }
+
+    private Instance analyser(List<ByteBuffer> segments) {
+        derniereErreur = null;
+        sectionCourante = Section.NONE;
+        colons = new TableSymboles();
+        ressources = new TableSymboles();
+        conflits = new GrapheConflits.Constructeur();
+        preferences = null;
+
+        // En-tête lu séquentiellement, jusqu'à la première ligne de préférences incluse
+        Analyseur entete = new Analyseur(false);
+        int segment = 0;
+        int position = 0;
+        for (; segment < segments.size(); segment++) {
+            entete.octets = segments.get(segment);
+            position = entete.parcourir(0, entete.octets.limit(), true);
+            if (position == -1) return null;
+            if (sectionCourante == Section.PREFERENCES) break;
+        }
+
+        if (segment < segments.size() && !lirePreferencesEnParallele(segments, segment, position, entete.numeroLigne)) {
+            return null;
+        }
+
+        // Vérifier préférences pour tous les colons
+        int n = colons.taille();
+        for (int c = 0; c < n; c++) {
+            if (preferences == null || preferences[c] == null) {
+                afficherErreur("Erreur : les préférences du colon '" + colons.nom(c) + "' non définies.");
+                return null;
+            }
+        }
+
+        return new Instance(new TableNoms(colons.noms()), new TableNoms(ressources.noms()),
+                n == 0 ? new int[0][] : preferences, conflits.construire(n));
+    }
+
+    /**
+     * Analyse en parallèle la fin du fichier, à partir de la position donnée dans le segment donné,
+     * puis rejoue dans l'ordre les résultats des morceaux pour signaler la première erreur éventuelle.
+     */
+    private boolean lirePreferencesEnParallele(List<ByteBuffer> segments, int premierSegment, int position, int lignesLues) {
+        List<Analyseur> morceaux = new ArrayList<>();
+        for (int s = premierSegment; s < segments.size(); s++) {
+            ByteBuffer octets = segments.get(s);
+            int debut = s == premierSegment ? position : 0;
+            int limite = octets.limit();
+            while (debut < limite) {
+                int fin = (int) Math.min((long) debut + TAILLE_MORCEAU, limite);
+                while (fin < limite && octets.get(fin - 1) != '\n') fin++;
+                Analyseur morceau = new Analyseur(true);
+                morceau.octets = octets;
+                morceau.debut = debut;
+                morceau.fin = fin;
+                morceaux.add(morceau);
+                debut = fin;
+            }
+        }
+
+        // Colons dont les préférences ont été lues avec l'en-tête
+        boolean[] definies = new boolean[colons.taille()];
+        for (int c = 0; c < definies.length; c++) {
+            definies[c] = preferences[c] != null;
+        }
+
+        IntStream.range(0, morceaux.size()).parallel().forEach(i -> {
+            Analyseur morceau = morceaux.get(i);
+            morceau.parcourir(morceau.debut, morceau.fin, false);
+        });
+
+        // Rejeu dans l'ordre du fichier : doublons entre morceaux, puis erreur propre au morceau
+        int ligneDebut = lignesLues;
+        for (Analyseur morceau : morceaux) {
+            for (int k = 0; k < morceau.nombreDefinis; k++) {
+                int c = morceau.colonsDefinis[k];
+                if (definies[c]) {
+                    afficherErreur("Erreur : préférences déjà définies pour '" + colons.nom(c) + "'.");
+                    return false;
+                }
+                definies[c] = true;
+            }
+            if (morceau.erreur != null) {
+                afficherErreur(morceau.erreur.apply(ligneDebut + morceau.ligneErreur));
+                return false;
+            }
+            ligneDebut += morceau.numeroLigne;
+        }
+        return true;
+    }
+
+    /**
+     * Analyse d'une suite de lignes dans un segment. En mode morceau, les erreurs ne sont pas affichées
+     * mais retenues (avec leur numéro de ligne relatif au morceau) et les doublons de préférences entre
+     * morceaux sont laissés au rejeu final.
+     */
+    private final class Analyseur {
+        private final boolean morceau;
+        private ByteBuffer octets;
+        private int debut;
+        private int fin;
+        private int numeroLigne;
+
+        /**
+         * Bornes des arguments de la ligne courante : début et fin (exclue) de chacun, après suppression des espaces.
+         */
+        private int[] bornes = new int[16];
+        private int nombreArguments;
+
+        /**
+         * Ressources déjà vues dans la liste de préférences en cours.
+         */
+        private long[] vues;
+
+        private int[] colonsDefinis = new int[16];
+        private int nombreDefinis;
+        private IntFunction<String> erreur;
+        private int ligneErreur;
+
+        Analyseur(boolean morceau) {
+            this.morceau = morceau;
+        }
+
+        /**
+         * Parcourt les lignes de [position, limite).
+         *
+         * @param arretAuxPreferences s'arrêter juste après la première ligne de préférences.
+         * @return la position atteinte, ou -1 en cas d'erreur.
+         */
+        int parcourir(int position, int limite, boolean arretAuxPreferences) {
+            while (position < limite) {
+                int finLigne = position;
+                while (finLigne < limite && octets.get(finLigne) != '\n' && octets.get(finLigne) != '\r') finLigne++;
+                numeroLigne++;
+                if (!analyserLigne(position, finLigne)) return -1;
+                position = finLigne;
+                if (position < limite && octets.get(position) == '\r') position++;
+                if (position < limite && octets.get(position) == '\n'
+                        && (position == finLigne || octets.get(position - 1) == '\r')) position++;
+                if (arretAuxPreferences && sectionCourante == Section.PREFERENCES) break;
+            }
+            return position;
+        }
+
+        private boolean signaler(IntFunction<String> message) {
+            if (morceau) {
+                erreur = message;
+                ligneErreur = numeroLigne;
+            } else {
+                afficherErreur(message.apply(numeroLigne));
+            }
+            return false;
+        }
+
+        private boolean analyserLigne(int debut, int fin) {
+            // Équivalent de String.trim()
+            while (debut < fin && (octets.get(debut) & 0xFF) <= ' ') debut++;
+            while (fin > debut && (octets.get(fin - 1) & 0xFF) <= ' ') fin--;
+
+            if (debut == fin) {
+                return true; // ignorer les lignes vides
+            }
+
+            // Vérifier que la ligne se termine par un '.'
+            if (octets.get(fin - 1) != '.') {
+                return signaler(ligne -> "Erreur de syntaxe à la ligne " + ligne + " : il manque le point à la fin.");
+            }
+            fin--;
+
+            if (commencePar(debut, fin, MOT_COLON)) {
+                return lireColon(debut + MOT_COLON.length, fin);
+            } else if (commencePar(debut, fin, MOT_RESSOURCE)) {
+                return lireRessource(debut + MOT_RESSOURCE.length, fin);
+            } else if (commencePar(debut, fin, MOT_DETESTE)) {
+                return lireDeteste(debut + MOT_DETESTE.length, fin);
+            } else if (commencePar(debut, fin, MOT_PREFERENCES)) {
+                return lirePreferences(debut + MOT_PREFERENCES.length, fin);
+            }
+            return signaler(ligne -> "Erreur : élément inconnu à la ligne " + ligne);
+        }
+
+        private boolean lireColon(int debut, int fin) {
+            if (sectionCourante == Section.NONE || sectionCourante == Section.COLON) {
+                sectionCourante = Section.COLON;
+            } else {
+                String sectionIncorrecte = getNomSection(sectionCourante);
+                return signaler(ligne -> "Erreur : Vous n'avez pas respecté l'ordre du fichier (colon, ressource, deteste, preferences), 'colon' après '"
+                        + sectionIncorrecte + "' à la ligne " + ligne);
+            }
+
+            if (!obtenirArgument(debut, fin, "colon")) return false;
+            int d = bornes[0];
+            int f = bornes[1];
+            if (!estAlphanumerique(d, f)) {
+                return signaler(ligne -> "Erreur : nom de colon invalide à la ligne " + ligne);
+            }
+            String nom = texte(d, f);
+            if (colons.chercher(octets, d, f) != -1) {
+                return signaler(ligne -> "Erreur : le colon '" + nom + "' a déjà été défini à la ligne " + ligne);
+            }
+            if (ressources.chercher(octets, d, f) != -1) {
+                return signaler(ligne -> "Erreur : le nom '" + nom + "' est déjà utilisé comme ressource");
+            }
+            colons.ajouter(octets, d, f);
+            return true;
+        }
+
+        private boolean lireRessource(int debut, int fin) {
+            if (sectionCourante == Section.COLON || sectionCourante == Section.RESSOURCE) {
+                if (colons.taille() == 0) {
+                    return signaler(ligne -> "Erreur : Aucun colon défini avant ressource.");
+                }
+                sectionCourante = Section.RESSOURCE;
+            } else if (sectionCourante == Section.NONE) {
+                return signaler(ligne -> "Erreur : 'ressource' en premier (ça doit être après colons).");
+            } else {
+                String sectionIncorrecte = getNomSection(sectionCourante);
+                return signaler(ligne -> "Erreur : 'ressource' après '" + sectionIncorrecte + "'");
+            }
+
+            if (!obtenirArgument(debut, fin, "ressource")) return false;
+            int d = bornes[0];
+            int f = bornes[1];
+            if (!estAlphanumerique(d, f)) {
+                return signaler(ligne -> "Erreur : nom de ressource invalide à la ligne " + ligne);
+            }
+            String nom = texte(d, f);
+            if (ressources.chercher(octets, d, f) != -1) {
+                return signaler(ligne -> "Erreur : ressource '" + nom + "' déjà définie.");
+            }
+            if (colons.chercher(octets, d, f) != -1) {
+                return signaler(ligne -> "Erreur : nom '" + nom + "' déjà utilisé comme colon.");
+            }
+            ressources.ajouter(octets, d, f);
+            return true;
+        }
+
+        private boolean lireDeteste(int debut, int fin) {
+            if (sectionCourante == Section.RESSOURCE || sectionCourante == Section.DETESTE) {
+                if (sectionCourante == Section.RESSOURCE && colons.taille() != ressources.taille()) {
+                    return signaler(ligne -> "Erreur : nb colons != nb ressources.");
+                }
+                sectionCourante = Section.DETESTE;
+            } else {
+                return signaler(ligne -> "Erreur : 'deteste' pas dans l'ordre correct.");
+            }
+
+            if (!obtenirArguments(debut, fin, "deteste", 2)) return false;
+            int c1 = colons.chercher(octets, bornes[0], bornes[1]);
+            int c2 = colons.chercher(octets, bornes[2], bornes[3]);
+            if (c1 == -1 || c2 == -1) {
+                return signaler(ligne -> "Erreur : colon(s) non défini(s) dans 'deteste'.");
+            }
+            conflits.ajouter(c1, c2);
+            return true;
+        }
+
+        private boolean lirePreferences(int debut, int fin) {
+            // En mode morceau, la section est déjà PREFERENCES et n'est plus modifiée
+            if (sectionCourante == Section.DETESTE || sectionCourante == Section.PREFERENCES) {
+                if (sectionCourante == Section.DETESTE && colons.taille() != ressources.taille()) {
+                    return signaler(ligne -> "Erreur : nb colons != nb ressources.");
+                }
+                if (!morceau) sectionCourante = Section.PREFERENCES;
+            } else {
+                return signaler(ligne -> "Erreur : 'preferences' pas dans l'ordre correct.");
+            }
+
+            if (!obtenirArguments(debut, fin, "preferences", -1)) return false;
+            int n = ressources.taille();
+            if (nombreArguments != n + 1) {
+                return signaler(ligne -> "Erreur : nombre de préférences incorrect.");
+            }
+
+            String nomColon = texte(bornes[0], bornes[1]);
+            int c = colons.chercher(octets, bornes[0], bornes[1]);
+            if (c == -1) {
+                return signaler(ligne -> "Erreur : colon '" + nomColon + "' non défini.");
+            }
+            if (preferences == null) {
+                preferences = new int[colons.taille()][];
+            }
+            if (morceau) {
+                if (nombreDefinis == colonsDefinis.length) {
+                    colonsDefinis = Arrays.copyOf(colonsDefinis, nombreDefinis * 2);
+                }
+                colonsDefinis[nombreDefinis++] = c;
+            } else if (preferences[c] != null) {
+                return signaler(ligne -> "Erreur : préférences déjà définies pour '" + nomColon + "'.");
+            }
+
+            if (vues == null) {
+                vues = new long[(n + 63) >>> 6];
+            }
+            int[] prefs = new int[n];
+            Arrays.fill(vues, 0L);
+            for (int i = 1; i <= n; i++) {
+                int d = bornes[2 * i];
+                int f = bornes[2 * i + 1];
+                int r = ressources.chercher(octets, d, f);
+                if (r == -1) {
+                    String nom = texte(d, f);
+                    return signaler(ligne -> "Erreur : ressource '" + nom + "' non définie.");
+                }
+                long bit = 1L << r;
+                if ((vues[r >>> 6] & bit) != 0) {
+                    String nom = texte(d, f);
+                    return signaler(ligne -> "Erreur : ressource '" + nom + "' dupliquée dans préférences de '" + nomColon + "'.");
+                }
+                vues[r >>> 6] |= bit;
+                prefs[i - 1] = r;
+            }
+            preferences[c] = prefs;
+            return true;
+        }
+
+        /**
+         * Repère l'argument unique entre la parenthèse ouvrante et la première parenthèse fermante.
+         */
+        private boolean obtenirArgument(int debut, int fin, String motCle) {
+            int fermante = chercherParenthese(debut, fin);
+            if (fermante == -1) {
+                return signaler(ligne -> "Erreur de syntaxe à la ligne " + ligne + " : parenthèse fermante manquante.");
+            }
+            int d = debut;
+            int f = fermante;
+            while (d < f && (octets.get(d) & 0xFF) <= ' ') d++;
+            while (f > d && (octets.get(f - 1) & 0xFF) <= ' ') f--;
+            if (d == f) {
+                return signaler(ligne -> "Erreur : argument manquant pour '" + motCle + "' à la ligne " + ligne);
+            }
+            bornes[0] = d;
+            bornes[1] = f;
+            nombreArguments = 1;
+            return true;
+        }
+
+        /**
+         * Découpe les arguments séparés par des virgules comme {@code String.split(",")} (les arguments vides
+         * en fin de liste sont ignorés) et vérifie qu'ils sont alphanumériques.
+         *
+         * @param nombreArgsAttendus nombre d'arguments exigé, ou -1 pour ne pas le vérifier.
+         */
+        private boolean obtenirArguments(int debut, int fin, String motCle, int nombreArgsAttendus) {
+            int fermante = chercherParenthese(debut, fin);
+            if (fermante == -1) {
+                return signaler(ligne -> "Erreur de syntaxe à la ligne " + ligne + " : parenthèse fermante manquante.");
+            }
+            int d = debut;
+            int f = fermante;
+            while (d < f && (octets.get(d) & 0xFF) <= ' ') d++;
+            while (f > d && (octets.get(f - 1) & 0xFF) <= ' ') f--;
+
+            nombreArguments = 0;
+            int derniereNonVide = 0;
+            int debutArgument = d;
+            for (int i = d; i <= f; i++) {
+                if (i == f || octets.get(i) == ',') {
+                    if (2 * nombreArguments + 2 > bornes.length) {
+                        bornes = Arrays.copyOf(bornes, bornes.length * 2);
+                    }
+                    bornes[2 * nombreArguments] = debutArgument;
+                    bornes[2 * nombreArguments + 1] = i;
+                    nombreArguments++;
+                    if (i > debutArgument) derniereNonVide = nombreArguments;
+                    debutArgument = i + 1;
+                }
+            }
+            if (d < f) {
+                nombreArguments = derniereNonVide;
+            }
+
+            if (nombreArgsAttendus != -1 && nombreArguments != nombreArgsAttendus) {
+                return signaler(ligne -> "Erreur : nombre d'arguments incorrect pour '" + motCle + "' à la ligne " + ligne);
+            }
+            for (int k = 0; k < nombreArguments; k++) {
+                int a = bornes[2 * k];
+                int b = bornes[2 * k + 1];
+                while (a < b && (octets.get(a) & 0xFF) <= ' ') a++;
+                while (b > a && (octets.get(b - 1) & 0xFF) <= ' ') b--;
+                bornes[2 * k] = a;
+                bornes[2 * k + 1] = b;
+                if (!estAlphanumerique(a, b)) {
+                    String argument = texte(a, b);
+                    return signaler(ligne -> "Erreur : argument invalide '" + argument + "' pour '" + motCle + "' à la ligne " + ligne + ". Les noms doivent être alphanumériques.");
+                }
+            }
+            return true;
+        }
+
+        private int chercherParenthese(int debut, int fin) {
+            for (int i = debut; i < fin; i++) {
+                if (octets.get(i) == ')') return i;
+            }
+            return -1;
+        }
+
+        private boolean commencePar(int debut, int fin, byte[] mot) {
+            if (fin - debut < mot.length) return false;
+            for (int i = 0; i < mot.length; i++) {
+                if (octets.get(debut + i) != mot[i]) return false;
+            }
+            return true;
+        }
+
+        private boolean estAlphanumerique(int debut, int fin) {
+            if (debut == fin) return false;
+            for (int i = debut; i < fin; i++) {
+                byte o = octets.get(i);
+                if (!((o >= 'a' && o <= 'z') || (o >= 'A' && o <= 'Z') || (o >= '0' && o <= '9'))) return false;
+            }
+            return true;
+        }
+
+        private String texte(int debut, int fin) {
+            byte[] copie = new byte[fin - debut];
+            octets.get(debut, copie);
+            return new String(copie, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String getNomSection(Section section) {
+        switch (section) {
+            case NONE: return "aucune";
+            case COLON: return "colon";
+            case RESSOURCE: return "ressource";
+            case DETESTE: return "deteste";
+            case PREFERENCES: return "preferences";
+            default: return "";
+        }
+    }
+
+    /**
+     * Table de noms à adressage ouvert, interrogée directement avec des tranches d'octets.
+     * Une fois l'en-tête lu, elle n'est plus que consultée, ce qui permet la lecture parallèle.
+     */
+    private static final class TableSymboles {
+        private byte[][] noms = new byte[16][];
+        private int[] hachages = new int[16];
+        private int taille;
+
+        /**
+         * Identifiant + 1 de chaque case (0 : case vide).
+         */
+        private int[] cases = new int[32];
+
+        int taille() {
+            return taille;
+        }
+
+        String nom(int id) {
+            return new String(noms[id], StandardCharsets.UTF_8);
+        }
+
+        List<String> noms() {
+            List<String> liste = new ArrayList<>(taille);
+            for (int i = 0; i < taille; i++) liste.add(nom(i));
+            return liste;
+        }
+
+        int chercher(ByteBuffer source, int debut, int fin) {
+            int h = hacher(source, debut, fin);
+            int masque = cases.length - 1;
+            for (int i = h & masque; ; i = (i + 1) & masque) {
+                int id = cases[i] - 1;
+                if (id == -1) return -1;
+                if (hachages[id] == h && egal(noms[id], source, debut, fin)) return id;
+            }
+        }
+
+        /**
+         * Ajoute un nom absent de la table et renvoie son identifiant.
+         */
+        int ajouter(ByteBuffer source, int debut, int fin) {
+            if (taille == noms.length) {
+                noms = Arrays.copyOf(noms, taille * 2);
+                hachages = Arrays.copyOf(hachages, taille * 2);
+            }
+            if (2 * (taille + 1) > cases.length) {
+                agrandir();
+            }
+            int id = taille++;
+            noms[id] = new byte[fin - debut];
+            source.get(debut, noms[id]);
+            hachages[id] = hacher(source, debut, fin);
+            placer(id);
+            return id;
+        }
+
+        private void agrandir() {
+            cases = new int[cases.length * 2];
+            for (int id = 0; id < taille; id++) placer(id);
+        }
+
+        private void placer(int id) {
+            int masque = cases.length - 1;
+            int i = hachages[id] & masque;
+            while (cases[i] != 0) i = (i + 1) & masque;
+            cases[i] = id + 1;
+        }
+
+        private static int hacher(ByteBuffer source, int debut, int fin) {
+            int h = 0x811C9DC5;
+            for (int i = debut; i < fin; i++) {
+                h = (h ^ source.get(i)) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean egal(byte[] nom, ByteBuffer source, int debut, int fin) {
+            if (nom.length != fin - debut) return false;
+            for (int i = 0; i < nom.length; i++) {
+                if (nom[i] != source.get(debut + i)) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package Modele;
+
+import java.util.Arrays;
+
+/**
+ * Affectation de coût total minimal par la méthode hongroise (chemins augmentants de coût réduit
+ * minimal avec potentiels, à la Jonker-Volgenant), en O(n³). Appliquée à la matrice des rangs,
+ * elle donne l'affectation qui minimise la somme des rangs obtenus par les colons : un point de départ
+ * où chacun est globalement bien servi, contrairement à l'affectation gloutonne qui favorise
+ * les premiers colons déclarés.
+ */
+public final class MethodeHongroise {
+
+    private MethodeHongroise() {
+    }
+
+    /**
+     * @return l'affectation minimisant la somme, sur tous les colons, du rang de la ressource reçue.
+     */
+    public static Affectation rangTotalMinimal(Instance instance) {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.DEPART);
+        Affectation affectation = new Affectation(resoudre(instance.matriceRangs()));
+        Metriques.fin(phase, "hongrois", instance.nombreColons(), -1);
+        return affectation;
+    }
+
+    /**
+     * @param cout matrice carrée des coûts, cout[ligne][colonne].
+     * @return pour chaque ligne, la colonne qui lui est affectée.
+     */
+    static int[] resoudre(int[][] cout) {
+        int n = cout.length;
+        // Indices décalés de 1 : la colonne 0 est fictive et sert de racine au chemin augmentant
+        long[] u = new long[n + 1];
+        long[] v = new long[n + 1];
+        int[] ligneDe = new int[n + 1];
+        int[] precedent = new int[n + 1];
+        long[] minimum = new long[n + 1];
+        boolean[] visitee = new boolean[n + 1];
+
+        for (int ligne = 1; ligne <= n; ligne++) {
+            ligneDe[0] = ligne;
+            int colonne = 0;
+            Arrays.fill(minimum, Long.MAX_VALUE);
+            Arrays.fill(visitee, false);
+            do {
+                visitee[colonne] = true;
+                int i = ligneDe[colonne];
+                int[] coutLigne = cout[i - 1];
+                long ui = u[i];
+                long delta = Long.MAX_VALUE;
+                int suivante = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!visitee[j]) {
+                        long reduit = coutLigne[j - 1] - ui - v[j];
+                        if (reduit < minimum[j]) {
+                            minimum[j] = reduit;
+                            precedent[j] = colonne;
+                        }
+                        if (minimum[j] < delta) {
+                            delta = minimum[j];
+                            suivante = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (visitee[j]) {
+                        u[ligneDe[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minimum[j] -= delta;
+                    }
+                }
+                colonne = suivante;
+            } while (ligneDe[colonne] != 0);
+
+            // Inversion du chemin augmentant
+            do {
+                int avant = precedent[colonne];
+                ligneDe[colonne] = ligneDe[avant];
+                colonne = avant;
+            } while (colonne != 0);
+        }
+
+        int[] colonneDe = new int[n];
+        for (int j = 1; j <= n; j++) {
+            colonneDe[ligneDe[j] - 1] = j - 1;
+        }
+        return colonneDe;
+    }
+}
@@ -0,0 +1,321 @@
+package Modele;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation de la lecture et de la résolution, à deux niveaux indépendants :
+ * <ul>
+ * <li>des compteurs (évaluations, échanges appliqués, tours d'amélioration, nombre et durée de chaque phase),
+ * tenus dans des {@link LongAdder} pour que les threads de recherche ne se disputent pas une même case,
+ * et publiés par JMX ; ils ne sont actifs qu'avec {@code -Dcolonie.metriques=true}. Le test porte sur une
+ * constante, que le compilateur JIT élimine quand elle est fausse ;</li>
+ * <li>des événements JFR (catégorie « Colonie ») pour les phases et chaque pas d'amélioration. Ils ne sont
+ * créés que si l'enregistreur de vol est démarré (option {@code -XX:StartFlightRecording} ou {@code jcmd JFR.start}) :
+ * le premier chargement d'une classe d'événement coûte plusieurs centaines de millisecondes, à ne payer que
+ * si quelqu'un écoute.</li>
+ * </ul>
+ */
+public final class Metriques implements MetriquesMBean {
+    /**
+     * {@code true} si les compteurs sont actifs (propriété système {@code colonie.metriques}).
+     */
+    public static final boolean ACTIVES = Boolean.getBoolean("colonie.metriques");
+
+    /**
+     * Phases mesurées : lecture d'un fichier, construction de l'affectation de départ,
+     * recherche par un solveur, calcul du coût d'une solution.
+     */
+    public enum Phase {
+        LECTURE, DEPART, RECHERCHE, CALCUL_COUT
+    }
+
+    private static final Metriques INSTANCE = new Metriques();
+
+    static {
+        if (ACTIVES) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(INSTANCE, new ObjectName("Modele:type=Metriques"));
+            } catch (JMException e) {
+                System.out.println("Métriques non publiées par JMX : " + e.getMessage());
+            }
+        }
+    }
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder echangesAppliques = new LongAdder();
+    private final LongAdder toursAmelioration = new LongAdder();
+    private final LongAdder[] nombre = new LongAdder[Phase.values().length];
+    private final LongAdder[] dureeNanos = new LongAdder[Phase.values().length];
+    private final LongAccumulator[] dureeMaxNanos = new LongAccumulator[Phase.values().length];
+
+    private Metriques() {
+        for (int i = 0; i < nombre.length; i++) {
+            nombre[i] = new LongAdder();
+            dureeNanos[i] = new LongAdder();
+            dureeMaxNanos[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    public static Metriques getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ouvre la mesure d'une phase.
+     *
+     * @return la mesure à passer à {@link #fin}.
+     */
+    public static Mesure debut(Phase phase) {
+        Mesure mesure = new Mesure(phase);
+        if (FlightRecorder.isInitialized()) {
+            mesure.evenement = Jfr.debutPhase();
+        }
+        return mesure;
+    }
+
+    /**
+     * Clôt la mesure d'une phase.
+     *
+     * @param objet  fichier lu ou nom du solveur.
+     * @param colons taille de l'instance (0 si inconnue).
+     * @param cout   coût obtenu, ou -1 s'il n'a pas de sens pour la phase.
+     */
+    public static void fin(Mesure mesure, String objet, int colons, int cout) {
+        if (ACTIVES) {
+            long duree = System.nanoTime() - mesure.debutNanos;
+            int i = mesure.phase.ordinal();
+            INSTANCE.nombre[i].increment();
+            INSTANCE.dureeNanos[i].add(duree);
+            INSTANCE.dureeMaxNanos[i].accumulate(duree);
+        }
+        if (mesure.evenement != null) {
+            Jfr.finPhase(mesure.evenement, mesure.phase, objet, colons, cout);
+        }
+    }
+
+    /**
+     * Clôt la mesure d'une recherche et compte ses évaluations.
+     *
+     * @return le résultat, inchangé.
+     */
+    static ResultatResolution finRecherche(Mesure mesure, Instance instance, ResultatResolution resultat) {
+        if (ACTIVES) {
+            INSTANCE.evaluations.add(resultat.getEvaluations());
+        }
+        fin(mesure, resultat.getSolveur(), instance.nombreColons(), resultat.getCout());
+        return resultat;
+    }
+
+    /**
+     * Signale un pas d'amélioration d'une recherche : une passe améliorante, un mouvement retenu
+     * ou un nouveau meilleur coût, selon la recherche.
+     *
+     * @param recherche nom court de la recherche.
+     * @param cout      coût atteint.
+     */
+    static void amelioration(String recherche, int cout) {
+        if (ACTIVES) {
+            INSTANCE.toursAmelioration.increment();
+        }
+        if (FlightRecorder.isInitialized()) {
+            Jfr.amelioration(recherche, cout);
+        }
+    }
+
+    /**
+     * Compte un échange appliqué à une affectation ; à n'appeler que si {@link #ACTIVES}.
+     */
+    static void echangeApplique() {
+        INSTANCE.echangesAppliques.increment();
+    }
+
+    /**
+     * @return un résumé d'une ligne des compteurs.
+     */
+    public String resume() {
+        return String.format("%d lecture(s) (moy. %.1f ms), %d recherche(s) (moy. %.1f ms, max %.1f ms), "
+                        + "%d évaluations, %d échanges appliqués, %d tours d'amélioration",
+                getLectures(), getDureeMoyenneLectureMillis(), getRecherches(), getDureeMoyenneRechercheMillis(),
+                getDureeMaxRechercheMillis(), getEvaluations(), getEchangesAppliques(), getToursAmelioration());
+    }
+
+    private double moyenneMillis(Phase phase) {
+        long n = nombre[phase.ordinal()].sum();
+        return n == 0 ? 0 : dureeNanos[phase.ordinal()].sum() / 1e6 / n;
+    }
+
+    private double maxMillis(Phase phase) {
+        return dureeMaxNanos[phase.ordinal()].get() / 1e6;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public long getEchangesAppliques() {
+        return echangesAppliques.sum();
+    }
+
+    @Override
+    public long getToursAmelioration() {
+        return toursAmelioration.sum();
+    }
+
+    @Override
+    public long getLectures() {
+        return nombre[Phase.LECTURE.ordinal()].sum();
+    }
+
+    @Override
+    public double getDureeMoyenneLectureMillis() {
+        return moyenneMillis(Phase.LECTURE);
+    }
+
+    @Override
+    public double getDureeMaxLectureMillis() {
+        return maxMillis(Phase.LECTURE);
+    }
+
+    @Override
+    public long getDeparts() {
+        return nombre[Phase.DEPART.ordinal()].sum();
+    }
+
+    @Override
+    public double getDureeMoyenneDepartMillis() {
+        return moyenneMillis(Phase.DEPART);
+    }
+
+    @Override
+    public double getDureeMaxDepartMillis() {
+        return maxMillis(Phase.DEPART);
+    }
+
+    @Override
+    public long getRecherches() {
+        return nombre[Phase.RECHERCHE.ordinal()].sum();
+    }
+
+    @Override
+    public double getDureeMoyenneRechercheMillis() {
+        return moyenneMillis(Phase.RECHERCHE);
+    }
+
+    @Override
+    public double getDureeMaxRechercheMillis() {
+        return maxMillis(Phase.RECHERCHE);
+    }
+
+    @Override
+    public long getCalculsCout() {
+        return nombre[Phase.CALCUL_COUT.ordinal()].sum();
+    }
+
+    @Override
+    public double getDureeMoyenneCalculCoutMillis() {
+        return moyenneMillis(Phase.CALCUL_COUT);
+    }
+
+    @Override
+    public double getDureeMaxCalculCoutMillis() {
+        return maxMillis(Phase.CALCUL_COUT);
+    }
+
+    @Override
+    public void reinitialiser() {
+        evaluations.reset();
+        echangesAppliques.reset();
+        toursAmelioration.reset();
+        for (int i = 0; i < nombre.length; i++) {
+            nombre[i].reset();
+            dureeNanos[i].reset();
+            dureeMaxNanos[i].reset();
+        }
+    }
+
+    /**
+     * Mesure d'une phase en cours.
+     */
+    public static final class Mesure {
+        private final Phase phase;
+        private final long debutNanos = System.nanoTime();
+        private Event evenement;
+
+        private Mesure(Phase phase) {
+            this.phase = phase;
+        }
+    }
+
+    /**
+     * Seule classe à manipuler les types d'événements, pour qu'ils ne soient chargés qu'à la première
+     * utilisation sous enregistrement.
+     */
+    private static final class Jfr {
+
+        static Event debutPhase() {
+            EvenementPhase evenement = new EvenementPhase();
+            evenement.begin();
+            return evenement;
+        }
+
+        static void finPhase(Event evenement, Phase phase, String objet, int colons, int cout) {
+            EvenementPhase e = (EvenementPhase) evenement;
+            e.end();
+            if (e.shouldCommit()) {
+                e.phase = phase.name();
+                e.objet = objet;
+                e.colons = colons;
+                e.cout = cout;
+                e.commit();
+            }
+        }
+
+        static void amelioration(String recherche, int cout) {
+            EvenementAmelioration evenement = new EvenementAmelioration();
+            if (evenement.shouldCommit()) {
+                evenement.recherche = recherche;
+                evenement.cout = cout;
+                evenement.commit();
+            }
+        }
+    }
+
+    @Name("Modele.Phase")
+    @Label("Phase")
+    @Category("Colonie")
+    @Description("Lecture, affectation de départ, recherche ou calcul de coût")
+    static final class EvenementPhase extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Fichier ou solveur")
+        String objet;
+        @Label("Colons")
+        int colons;
+        @Label("Coût")
+        int cout;
+    }
+
+    @Name("Modele.Amelioration")
+    @Label("Pas d'amélioration")
+    @Category("Colonie")
+    static final class EvenementAmelioration extends Event {
+        @Label("Recherche")
+        String recherche;
+        @Label("Coût")
+        int cout;
+    }
+}
@@ -0,0 +1,43 @@
+package Modele;
+
+/**
+ * Interface d'administration (JMX) des {@link Metriques}, publiée sous le nom {@code Modele:type=Metriques}.
+ * Les durées sont en millisecondes.
+ */
+public interface MetriquesMBean {
+
+    long getEvaluations();
+
+    long getEchangesAppliques();
+
+    long getToursAmelioration();
+
+    long getLectures();
+
+    double getDureeMoyenneLectureMillis();
+
+    double getDureeMaxLectureMillis();
+
+    long getDeparts();
+
+    double getDureeMoyenneDepartMillis();
+
+    double getDureeMaxDepartMillis();
+
+    long getRecherches();
+
+    double getDureeMoyenneRechercheMillis();
+
+    double getDureeMaxRechercheMillis();
+
+    long getCalculsCout();
+
+    double getDureeMoyenneCalculCoutMillis();
+
+    double getDureeMaxCalculCoutMillis();
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    void reinitialiser();
+}
@@ -0,0 +1,328 @@
+package Modele;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Point d'entrée non interactif : résout une liste de colonies (fichiers texte ou binaires, ou dossiers
+ * qui en contiennent) en parallèle sur un pool borné, écrit la solution de chacune et un résumé CSV
+ * (coût, temps, évaluations).
+ * <p>
+ * Usage : {@code ModeBatch [-methode m] [-duree s] [-threads n] [-sortie dossier] [-resume fichier.csv] [-binaire]
+ * [-depart d] <fichier|dossier>...} où m est l'un des {@link Solveurs#NOMS} (par défaut meilleure) et d l'affectation
+ * de départ : {@code reduit} (par défaut, voir {@link Reduction}), {@code glouton} (ordre de déclaration)
+ * ou {@code hongrois} (rang total minimal). {@code -hongrois} équivaut à {@code -depart hongrois}.
+ * Avec {@code -cache dossier}, les résultats sont gardés dans un {@link CacheResultats} : une colonie déjà
+ * résolue avec au moins la même durée est reprise telle quelle, sinon sa solution connue sert de départ.
+ */
+public class ModeBatch {
+    private String methode = "meilleure";
+    private long dureeMillis = 10_000;
+    private int nombreThreads = Runtime.getRuntime().availableProcessors();
+    private String dossierSortie;
+    private String fichierResume;
+    private boolean binaire;
+    private String depart = "reduit";
+    private String dossierCache;
+    private CacheResultats cache;
+    private final List<File> fichiers = new ArrayList<>();
+
+    /**
+     * Résultat de la résolution d'un fichier, une ligne du résumé.
+     */
+    private static final class Resultat {
+        private final File fichier;
+        private int nombreColons;
+        private int cout = -1;
+        private int borne = -1;
+        private long tempsMillis;
+        private long evaluations;
+        private String statut = "ok";
+
+        Resultat(File fichier) {
+            this.fichier = fichier;
+        }
+    }
+
+    public static void main(String[] args) {
+        ModeBatch batch = new ModeBatch();
+        if (!batch.lireArguments(args)) {
+            System.out.println("Usage : ModeBatch [-methode " + String.join("|", Solveurs.NOMS) + "] [-duree secondes]"
+                    + " [-threads n] [-sortie dossier] [-resume fichier.csv] [-binaire] [-depart reduit|glouton|hongrois] [-cache dossier]"
+                    + " <fichier|dossier>...");
+            System.exit(2);
+        }
+        System.exit(batch.executer() ? 0 : 1);
+    }
+
+    private boolean lireArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-methode":
+                        methode = args[++i];
+                        break;
+                    case "-duree":
+                        dureeMillis = Long.parseLong(args[++i]) * 1000L;
+                        break;
+                    case "-threads":
+                        nombreThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "-sortie":
+                        dossierSortie = args[++i];
+                        break;
+                    case "-resume":
+                        fichierResume = args[++i];
+                        break;
+                    case "-binaire":
+                        binaire = true;
+                        break;
+                    case "-depart":
+                        depart = args[++i];
+                        break;
+                    case "-hongrois":
+                        depart = "hongrois";
+                        break;
+                    case "-cache":
+                        dossierCache = args[++i];
+                        break;
+                    default:
+                        if (args[i].startsWith("-")) {
+                            System.out.println("Option inconnue : " + args[i]);
+                            return false;
+                        }
+                        ajouterEntree(new File(args[i]));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            System.out.println("Valeur d'option manquante ou incorrecte.");
+            return false;
+        }
+        if (!Solveurs.NOMS.contains(methode)) {
+            System.out.println("Méthode inconnue : " + methode);
+            return false;
+        }
+        if (!depart.equals("reduit") && !depart.equals("glouton") && !depart.equals("hongrois")) {
+            System.out.println("Affectation de départ inconnue : " + depart);
+            return false;
+        }
+        return !fichiers.isEmpty() && nombreThreads > 0 && dureeMillis > 0;
+    }
+
+    /**
+     * Ajoute un fichier, ou les fichiers .txt et .bin d'un dossier (par ordre alphabétique),
+     * hormis les solutions écrites par un lot précédent.
+     */
+    private void ajouterEntree(File entree) {
+        if (entree.isDirectory()) {
+            File[] contenu = entree.listFiles((dossier, nom) -> (nom.endsWith(".txt") || nom.endsWith(".bin"))
+                    && !nom.contains(".solution."));
+            if (contenu != null) {
+                Arrays.sort(contenu);
+                for (File f : contenu) {
+                    if (f.isFile()) fichiers.add(f);
+                }
+            }
+        } else {
+            fichiers.add(entree);
+        }
+    }
+
+    /**
+     * Résout tous les fichiers et écrit le résumé.
+     *
+     * @return {@code true} si tous les fichiers ont été résolus.
+     */
+    private boolean executer() {
+        if (dossierSortie != null) {
+            new File(dossierSortie).mkdirs();
+        }
+        if (dossierCache != null) {
+            try {
+                cache = new CacheResultats(4 * fichiers.size(), Paths.get(dossierCache));
+            } catch (IOException e) {
+                System.out.println("Cache indisponible : " + e.getMessage());
+                return false;
+            }
+        }
+        if (fichierResume == null) {
+            fichierResume = new File(dossierSortie == null ? "." : dossierSortie, "resume.csv").getPath();
+        }
+
+        // Deux entrées de même solution (x.txt et x.bin rangés ailleurs avec -sortie, ou un fichier donné deux fois)
+        // s'écraseraient l'une l'autre depuis deux threads
+        Map<String, File> sorties = new HashMap<>();
+        for (File fichier : fichiers) {
+            File solution = fichierSolution(fichier);
+            File autre = sorties.putIfAbsent(solution.getAbsoluteFile().toPath().normalize().toString(), fichier);
+            if (autre != null) {
+                System.out.println("Erreur : " + autre + " et " + fichier + " écriraient tous deux " + solution + ".");
+                return false;
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(nombreThreads, fichiers.size()));
+        List<Future<Resultat>> taches = new ArrayList<>();
+        for (File fichier : fichiers) {
+            taches.add(pool.submit(() -> resoudre(fichier)));
+        }
+
+        List<Resultat> resultats = new ArrayList<>();
+        boolean succes = true;
+        try {
+            for (int i = 0; i < taches.size(); i++) {
+                Resultat resultat;
+                try {
+                    resultat = taches.get(i).get();
+                } catch (ExecutionException e) {
+                    resultat = new Resultat(fichiers.get(i));
+                    resultat.statut = "échec : " + e.getCause();
+                }
+                succes &= resultat.statut.startsWith("ok");
+                resultats.add(resultat);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        try {
+            ecrireResume(resultats);
+            System.out.println(resultats.size() + " fichier(s) traité(s), résumé écrit dans " + fichierResume);
+            if (Metriques.ACTIVES) {
+                System.out.println("Métriques : " + Metriques.getInstance().resume());
+            }
+        } catch (IOException e) {
+            System.out.println("Erreur lors de l'écriture du résumé : " + e.getMessage());
+            return false;
+        }
+        return succes;
+    }
+
+    private Affectation affectationDepart(Instance instance) {
+        switch (depart) {
+            case "glouton":
+                return Affectation.gloutonne(instance, null);
+            case "hongrois":
+                return MethodeHongroise.rangTotalMinimal(instance);
+            default:
+                return new Reduction(instance).affectationInitiale();
+        }
+    }
+
+    /**
+     * Lit, résout et sauvegarde une colonie ; n'affiche que les erreurs de lecture et une ligne de bilan.
+     */
+    private Resultat resoudre(File fichier) {
+        Resultat resultat = new Resultat(fichier);
+        long debut = System.nanoTime();
+        Instance instance;
+        if (FormatBinaire.estInstanceBinaire(fichier.getPath())) {
+            try {
+                instance = FormatBinaire.lireInstance(fichier.getPath());
+            } catch (IOException e) {
+                System.out.println(fichier + " : " + e.getMessage());
+                instance = null;
+            }
+        } else {
+            instance = new LecteurColonie().lire(fichier.getPath());
+        }
+        if (instance == null) {
+            System.out.println(fichier + " : erreur de lecture");
+            resultat.statut = "erreur de lecture";
+            return resultat;
+        }
+        resultat.nombreColons = instance.nombreColons();
+
+        // Le parallélisme est celui des fichiers : chaque résolution reste sur un seul thread
+        Solveur solveur = Solveurs.parNom(methode, fichier.getName().hashCode(), 1);
+        Budget budget = Budget.duree(dureeMillis);
+        ResultatResolution solution;
+        if (cache == null) {
+            solution = solveur.resoudre(instance, affectationDepart(instance), budget);
+        } else {
+            CacheResultats.Cle cle = CacheResultats.cle(instance);
+            ResultatResolution connu = cache.chercher(instance, cle);
+            if (connu != null && cache.estSuffisant(cle, budget)) {
+                solution = connu;
+                resultat.statut = "ok, cache";
+            } else {
+                solution = solveur.resoudre(instance, connu != null ? connu.getAffectation() : affectationDepart(instance), budget);
+                cache.enregistrer(instance, cle, solution);
+                if (connu != null && connu.getCout() < solution.getCout()) solution = connu;
+                if (connu != null) resultat.statut = "ok, départ du cache";
+            }
+        }
+        resultat.cout = solution.getCout();
+        resultat.borne = solution.getBorneInferieure();
+        resultat.evaluations = solution.getEvaluations();
+        if (methode.equals("exacte") && !solution.estOptimal()) resultat.statut = "ok, optimalité non prouvée";
+        resultat.tempsMillis = (System.nanoTime() - debut) / 1_000_000;
+
+        try {
+            ecrireSolution(fichier, instance, solution.getAffectation());
+        } catch (IOException e) {
+            resultat.statut = "erreur d'écriture : " + e.getMessage();
+        }
+        System.out.println(fichier + " : coût " + resultat.cout + " (borne " + resultat.borne + ") en " + resultat.tempsMillis + " ms");
+        return resultat;
+    }
+
+    /**
+     * @return le fichier de la solution, à côté du fichier d'entrée (ou dans le dossier de sortie) : le nom complet
+     * de l'entrée suivi de {@code .solution.txt} (ou {@code .solution.bin}), pour que {@code x.txt} et {@code x.bin}
+     * aient chacun le leur.
+     */
+    private File fichierSolution(File fichier) {
+        File dossier = dossierSortie != null ? new File(dossierSortie) : fichier.getAbsoluteFile().getParentFile();
+        return new File(dossier, fichier.getName() + (binaire ? ".solution.bin" : ".solution.txt"));
+    }
+
+    /**
+     * Écrit la solution dans {@link #fichierSolution} : une ligne {@code colon:ressource} par colon dans l'ordre
+     * de déclaration, ou le format binaire.
+     */
+    private void ecrireSolution(File fichier, Instance instance, Affectation affectation) throws IOException {
+        File sortie = fichierSolution(fichier);
+        if (binaire) {
+            FormatBinaire.ecrireSolution(affectation, sortie.getPath());
+            return;
+        }
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        try (BufferedWriter writer = Files.newBufferedWriter(sortie.toPath(), StandardCharsets.UTF_8)) {
+            for (int c = 0; c < affectation.taille(); c++) {
+                writer.write(colons.nom(c) + ":" + ressources.nom(affectation.ressourceDe(c)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void ecrireResume(List<Resultat> resultats) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(fichierResume), StandardCharsets.UTF_8)) {
+            writer.write("fichier,colons,methode,cout,borne,temps_ms,evaluations,statut");
+            writer.newLine();
+            for (Resultat r : resultats) {
+                writer.write(csv(r.fichier.getPath()) + "," + r.nombreColons + "," + methode + "," + r.cout + "," + r.borne + ","
+                        + r.tempsMillis + "," + r.evaluations + "," + csv(r.statut));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String csv(String valeur) {
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0) return valeur;
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,197 @@
+package Modele;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modification d'une colonie déjà compilée : relations « deteste » ajoutées ou retirées et listes de
+ * préférences remplacées. Elle produit l'instance modifiée ({@link #appliquer()}) et la liste des colons
+ * touchés, à partir de laquelle {@link Reparation} corrige une affectation existante.
+ * Les colons et les ressources restent ceux de l'instance d'origine.
+ */
+public final class ModificationColonie {
+    private final Instance instance;
+
+    /**
+     * Relations modifiées, par clé (plus petit colon, plus grand colon) : {@code true} pour un ajout,
+     * {@code false} pour un retrait. Ajouter puis retirer une même relation s'annule.
+     */
+    private final Map<Long, Boolean> conflits = new LinkedHashMap<>();
+    private final Map<Integer, int[]> preferences = new HashMap<>();
+    private Instance modifiee;
+
+    /**
+     * @param instance instance d'origine, qui n'est pas modifiée.
+     */
+    public ModificationColonie(Instance instance) {
+        this.instance = instance;
+    }
+
+    public Instance getInstanceOrigine() {
+        return instance;
+    }
+
+    /**
+     * Ajoute une relation entre deux colons.
+     *
+     * @return {@code false} si la relation existe déjà (compte tenu de la modification) ou relie un colon à lui-même.
+     * @throws IllegalArgumentException si un colon est inconnu.
+     */
+    public boolean ajouterConflit(String colonA, String colonB) {
+        return ajouterConflit(idColon(colonA), idColon(colonB));
+    }
+
+    public boolean ajouterConflit(int a, int b) {
+        return basculer(a, b, true);
+    }
+
+    /**
+     * Retire une relation entre deux colons.
+     *
+     * @return {@code false} si la relation n'existe pas (compte tenu de la modification).
+     * @throws IllegalArgumentException si un colon est inconnu.
+     */
+    public boolean retirerConflit(String colonA, String colonB) {
+        return retirerConflit(idColon(colonA), idColon(colonB));
+    }
+
+    public boolean retirerConflit(int a, int b) {
+        return basculer(a, b, false);
+    }
+
+    /**
+     * Remplace la liste de préférences d'un colon.
+     *
+     * @param ressources noms des ressources, de la préférée à la moins aimée.
+     * @throws IllegalArgumentException si le colon est inconnu ou si la liste n'est pas une permutation des ressources.
+     */
+    public void changerPreferences(String colon, List<String> ressources) {
+        TableNoms noms = instance.getRessources();
+        int[] liste = new int[ressources.size()];
+        for (int k = 0; k < liste.length; k++) {
+            liste[k] = noms.id(ressources.get(k));
+            if (liste[k] == -1) {
+                throw new IllegalArgumentException("Ressource inconnue : " + ressources.get(k) + ".");
+            }
+        }
+        changerPreferences(idColon(colon), liste);
+    }
+
+    /**
+     * @param ressources identifiants des ressources, de la préférée à la moins aimée ; le tableau est copié.
+     */
+    public void changerPreferences(int colon, int[] ressources) {
+        verifierColon(colon);
+        int n = instance.nombreColons();
+        if (ressources.length != n) {
+            throw new IllegalArgumentException("Les préférences doivent classer les " + n + " ressources.");
+        }
+        boolean[] vue = new boolean[n];
+        for (int r : ressources) {
+            if (r < 0 || r >= n || vue[r]) {
+                throw new IllegalArgumentException("Les préférences ne sont pas une permutation des ressources (ressource " + r + ").");
+            }
+            vue[r] = true;
+        }
+        preferences.put(colon, ressources.clone());
+        modifiee = null;
+    }
+
+    public boolean estVide() {
+        return conflits.isEmpty() && preferences.isEmpty();
+    }
+
+    /**
+     * @return les colons dont une relation ou les préférences changent, par identifiant croissant.
+     */
+    public int[] colonsTouches() {
+        int[] touches = new int[2 * conflits.size() + preferences.size()];
+        int k = 0;
+        for (long cle : conflits.keySet()) {
+            touches[k++] = (int) (cle >>> 32);
+            touches[k++] = (int) cle;
+        }
+        for (int c : preferences.keySet()) {
+            touches[k++] = c;
+        }
+        Arrays.sort(touches);
+        int distincts = 0;
+        for (int i = 0; i < touches.length; i++) {
+            if (i == 0 || touches[i] != touches[i - 1]) touches[distincts++] = touches[i];
+        }
+        return Arrays.copyOf(touches, distincts);
+    }
+
+    /**
+     * @return l'instance modifiée (calculée une fois). Les listes de préférences inchangées et les noms
+     * sont partagés avec l'instance d'origine.
+     */
+    public Instance appliquer() {
+        if (modifiee != null) return modifiee;
+        int[] ajouts = new int[2 * conflits.size()];
+        int[] retraits = new int[2 * conflits.size()];
+        int nombreAjouts = 0;
+        int nombreRetraits = 0;
+        for (Map.Entry<Long, Boolean> entree : conflits.entrySet()) {
+            int a = (int) (entree.getKey() >>> 32);
+            int b = (int) (long) entree.getKey();
+            if (entree.getValue()) {
+                ajouts[nombreAjouts++] = a;
+                ajouts[nombreAjouts++] = b;
+            } else {
+                retraits[nombreRetraits++] = a;
+                retraits[nombreRetraits++] = b;
+            }
+        }
+        GrapheConflits graphe = conflits.isEmpty() ? instance.getConflits()
+                : instance.getConflits().modifier(Arrays.copyOf(ajouts, nombreAjouts), Arrays.copyOf(retraits, nombreRetraits));
+
+        int[][] prefs = instance.matricePreferences();
+        int[][] rang = instance.matriceRangs();
+        if (!preferences.isEmpty()) {
+            prefs = prefs.clone();
+            rang = rang.clone();
+            for (Map.Entry<Integer, int[]> entree : preferences.entrySet()) {
+                int c = entree.getKey();
+                prefs[c] = entree.getValue();
+                rang[c] = Instance.inverser(new int[][]{prefs[c]}, prefs[c].length)[0];
+            }
+        }
+        modifiee = new Instance(instance.getColons(), instance.getRessources(), prefs, rang, graphe);
+        return modifiee;
+    }
+
+    private boolean basculer(int a, int b, boolean ajout) {
+        verifierColon(a);
+        verifierColon(b);
+        if (a == b) return false;
+        long cle = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        Boolean enAttente = conflits.get(cle);
+        boolean present = enAttente != null ? enAttente : instance.getConflits().sontVoisins(a, b);
+        if (present == ajout) return false;
+        if (enAttente != null) {
+            conflits.remove(cle);
+        } else {
+            conflits.put(cle, ajout);
+        }
+        modifiee = null;
+        return true;
+    }
+
+    private int idColon(String nom) {
+        int id = instance.getColons().id(nom);
+        if (id == -1) {
+            throw new IllegalArgumentException("Colon inconnu : " + nom + ".");
+        }
+        return id;
+    }
+
+    private void verifierColon(int colon) {
+        if (colon < 0 || colon >= instance.nombreColons()) {
+            throw new IllegalArgumentException("Colon inconnu : " + colon + ".");
+        }
+    }
+}
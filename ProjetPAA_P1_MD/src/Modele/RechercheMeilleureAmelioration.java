@@ -0,0 +1,186 @@
+package Modele;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Descente par meilleure amélioration sur le voisinage des échanges de ressources.
+ * À chaque passe, tous les échanges (a, b) avec a &lt; b sont évalués sur l'affectation courante,
+ * qui reste en lecture seule, puis le meilleur est appliqué. Les paires peuvent être réparties
+ * sur un {@link ForkJoinPool} ; en cas d'égalité l'échange de plus petits indices l'emporte,
+ * si bien que les modes séquentiel et parallèle donnent exactement le même résultat.
+ * Les paires de deux colons sans conflit, de variation toujours nulle, ne sont pas évaluées.
+ * <p>
+ * Une passe coûte O(n²) : le budget est consulté à chaque ligne (chaque premier colon a), et une passe
+ * interrompue rend le meilleur échange vu jusque-là. Les itérations sont signalées par paquets d'au
+ * moins {@link #PAQUET_PAIRES} paires, pour que le suivi progresse pendant la passe.
+ */
+public class RechercheMeilleureAmelioration {
+    /**
+     * Nombre de paires en dessous duquel une tâche n'est plus découpée.
+     */
+    private static final long SEUIL_PAIRES = 4096;
+
+    /**
+     * Nombre de paires évaluées au-delà duquel une exploration les signale au budget.
+     */
+    private static final long PAQUET_PAIRES = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool pool utilisé pour explorer le voisinage, ou {@code null} pour une exploration séquentielle.
+     */
+    public RechercheMeilleureAmelioration(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Applique le meilleur échange améliorant tant qu'il en existe.
+     *
+     * @return le nombre d'échanges appliqués.
+     */
+    public int ameliorer(EvaluateurCout evaluateur) {
+        return ameliorer(evaluateur, new Budget(0, 0));
+    }
+
+    /**
+     * Comme {@link #ameliorer(EvaluateurCout)}, en s'arrêtant plus tôt si le budget est terminé
+     * ou son objectif atteint (vérifié avant chaque passe et à chaque ligne d'une passe).
+     */
+    public int ameliorer(EvaluateurCout evaluateur, Budget budget) {
+        int n = evaluateur.getAffectation().taille();
+        int[] coeur = evaluateur.colonsEnConflit();
+        int echanges = 0;
+        while (!budget.objectifAtteint(evaluateur.cout()) && !budget.estTermine()) {
+            Passe passe = new Passe(evaluateur, coeur, n, budget);
+            Mouvement meilleur = pool == null
+                    ? passe.explorer(0, n)
+                    : pool.invoke(new Exploration(passe, 0, n));
+            evaluateur.ajouterEvaluations(passe.evaluees.sum());
+            if (meilleur == null || meilleur.delta >= 0) {
+                return echanges;
+            }
+            evaluateur.echanger(meilleur.a, meilleur.b);
+            evaluateur.getAffectation().validerJournal();
+            echanges++;
+            Metriques.amelioration("meilleure", evaluateur.cout());
+            budget.signalerAmelioration(evaluateur.cout(), evaluateur.getAffectation().ressources());
+        }
+        return echanges;
+    }
+
+    /**
+     * Exploration d'une passe : l'affectation en lecture seule et le budget partagés par ses tâches.
+     */
+    private static final class Passe {
+        private final EvaluateurCout evaluateur;
+        private final int[] coeur;
+        private final int n;
+        private final Budget budget;
+        private final int cout;
+        private final LongAdder evaluees = new LongAdder();
+
+        Passe(EvaluateurCout evaluateur, int[] coeur, int n, Budget budget) {
+            this.evaluateur = evaluateur;
+            this.coeur = coeur;
+            this.n = n;
+            this.budget = budget;
+            this.cout = evaluateur.cout();
+        }
+
+        /**
+         * Meilleur échange dont le premier colon est dans [debut, fin). Un colon hors du cœur
+         * n'est associé qu'aux colons du cœur qui le suivent. S'arrête avant la ligne suivante
+         * quand le budget est terminé ou son objectif atteint.
+         */
+        Mouvement explorer(int debut, int fin) {
+            Mouvement meilleur = null;
+            long paquet = 0;
+            int k = Arrays.binarySearch(coeur, debut);
+            if (k < 0) k = -k - 1;
+            for (int a = debut; a < fin && !budget.objectifAtteint(cout) && !budget.estTermine(); a++) {
+                while (k < coeur.length && coeur[k] < a) k++;
+                boolean dansCoeur = k < coeur.length && coeur[k] == a;
+                int i = dansCoeur ? a + 1 : k;
+                int borne = dansCoeur ? n : coeur.length;
+                paquet += Math.max(0, borne - i);
+                for (; i < borne; i++) {
+                    int b = dansCoeur ? i : coeur[i];
+                    int delta = evaluateur.variationEchange(a, b);
+                    if (meilleur == null || delta < meilleur.delta) {
+                        if (meilleur == null) meilleur = new Mouvement();
+                        meilleur.delta = delta;
+                        meilleur.a = a;
+                        meilleur.b = b;
+                    }
+                }
+                if (paquet >= PAQUET_PAIRES) {
+                    signaler(paquet);
+                    paquet = 0;
+                }
+            }
+            signaler(paquet);
+            return meilleur;
+        }
+
+        private void signaler(long paires) {
+            if (paires == 0) return;
+            evaluees.add(paires);
+            budget.signalerIterations(paires);
+        }
+    }
+
+    /**
+     * Le mouvement de gauche porte sur des indices plus petits : il est conservé en cas d'égalité.
+     */
+    private static Mouvement choisir(Mouvement gauche, Mouvement droite) {
+        if (gauche == null) return droite;
+        if (droite == null) return gauche;
+        return droite.delta < gauche.delta ? droite : gauche;
+    }
+
+    private static final class Mouvement {
+        int delta;
+        int a;
+        int b;
+    }
+
+    private static final class Exploration extends RecursiveTask<Mouvement> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Passe passe;
+        private final int debut;
+        private final int fin;
+
+        Exploration(Passe passe, int debut, int fin) {
+            this.passe = passe;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Mouvement compute() {
+            if (fin - debut <= 1 || nombrePaires() <= SEUIL_PAIRES) {
+                return passe.explorer(debut, fin);
+            }
+            int milieu = (debut + fin) >>> 1;
+            Exploration gauche = new Exploration(passe, debut, milieu);
+            Exploration droite = new Exploration(passe, milieu, fin);
+            gauche.fork();
+            Mouvement resultatDroite = droite.compute();
+            return choisir(gauche.join(), resultatDroite);
+        }
+
+        /**
+         * Nombre de paires (a, b) avec debut &lt;= a &lt; fin et a &lt; b &lt; n, sans tenir compte du cœur.
+         */
+        private long nombrePaires() {
+            long lignes = fin - debut;
+            int n = passe.n;
+            return lignes * (n - 1) - ((long) (debut + fin - 1) * lignes) / 2;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package Modele;
+
+/**
+ * Descente par première amélioration : les paires (a, b) avec a &lt; b sont parcourues dans l'ordre
+ * et tout échange qui fait baisser le coût est appliqué immédiatement, jusqu'à une passe sans amélioration.
+ * Les paires de deux colons sans conflit, dont l'échange ne change jamais le coût, sont sautées.
+ */
+public class RecherchePremiereAmelioration {
+
+    /**
+     * Applique les échanges améliorants jusqu'à un optimum local.
+     *
+     * @return le nombre d'échanges appliqués.
+     */
+    public int ameliorer(EvaluateurCout evaluateur) {
+        return ameliorer(evaluateur, new Budget(0, 0));
+    }
+
+    /**
+     * Comme {@link #ameliorer(EvaluateurCout)}, en s'arrêtant plus tôt si le budget est terminé
+     * ou son objectif atteint (vérifié avant chaque ligne de paires).
+     */
+    public int ameliorer(EvaluateurCout evaluateur, Budget budget) {
+        Affectation affectation = evaluateur.getAffectation();
+        int n = affectation.taille();
+        int[] coeur = evaluateur.colonsEnConflit();
+        int echanges = 0;
+        boolean amelioration;
+        do {
+            amelioration = false;
+            // Les échanges acceptés ne sont jamais annulés : le journal est vidé à chaque passe
+            affectation.validerJournal();
+            // k : premier colon du cœur d'indice >= colon
+            int k = 0;
+            for (int colon = 0; colon < n; colon++) {
+                if (budget.objectifAtteint(evaluateur.cout()) || budget.estTermine()) {
+                    affectation.validerJournal();
+                    return echanges;
+                }
+                while (k < coeur.length && coeur[k] < colon) k++;
+                if (k < coeur.length && coeur[k] == colon) {
+                    budget.signalerIterations(n - colon - 1);
+                    for (int autreColon = colon + 1; autreColon < n; autreColon++) {
+                        if (evaluateur.deltaEchange(colon, autreColon) < 0) {
+                            evaluateur.echanger(colon, autreColon);
+                            amelioration = true;
+                            echanges++;
+                        }
+                    }
+                } else {
+                    budget.signalerIterations(coeur.length - k);
+                    for (int i = k; i < coeur.length; i++) {
+                        if (evaluateur.deltaEchange(colon, coeur[i]) < 0) {
+                            evaluateur.echanger(colon, coeur[i]);
+                            amelioration = true;
+                            echanges++;
+                        }
+                    }
+                }
+            }
+            if (amelioration) {
+                Metriques.amelioration("premiere", evaluateur.cout());
+                budget.signalerAmelioration(evaluateur.cout(), affectation.ressources());
+            }
+        } while (amelioration);
+        affectation.validerJournal();
+        return echanges;
+    }
+}
@@ -0,0 +1,94 @@
+package Modele;
+
+import java.util.SplittableRandom;
+
+/**
+ * Recherche tabou sur le voisinage des échanges de ressources. À chaque itération, un échantillon
+ * d'échanges est évalué et le meilleur est appliqué même s'il dégrade le coût ; les deux colons
+ * échangés deviennent tabous pendant {@code duree} itérations, sauf si l'échange améliore
+ * la meilleure solution connue (critère d'aspiration).
+ */
+public class RechercheTabou {
+    private final int tailleEchantillon;
+    private final int duree;
+    private final SplittableRandom aleatoire;
+
+    private int meilleurCout;
+    private long nombreIterations;
+
+    /**
+     * @param tailleEchantillon nombre d'échanges évalués par itération.
+     * @param duree             nombre d'itérations pendant lesquelles un colon échangé reste tabou.
+     * @param graine            graine du générateur aléatoire.
+     */
+    public RechercheTabou(int tailleEchantillon, int duree, long graine) {
+        this.tailleEchantillon = tailleEchantillon;
+        this.duree = duree;
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    public RechercheTabou(long graine) {
+        this(64, 10, graine);
+    }
+
+    /**
+     * Fait évoluer l'affectation suivie par l'évaluateur jusqu'à épuisement du budget,
+     * puis la remet dans le meilleur état rencontré.
+     *
+     * @return le coût de la meilleure affectation.
+     */
+    public int resoudre(EvaluateurCout evaluateur, Budget budget) {
+        Affectation affectation = evaluateur.getAffectation();
+        int n = affectation.taille();
+        // Un échange utile implique au moins un colon en conflit ; le cœur est non vide tant que le coût est positif
+        int[] coeur = evaluateur.colonsEnConflit();
+        int[] meilleure = affectation.instantane();
+        long[] tabouJusqua = new long[n];
+        meilleurCout = evaluateur.cout();
+        nombreIterations = 0;
+
+        while (n > 1 && !budget.objectifAtteint(meilleurCout) && !budget.epuise(nombreIterations)) {
+            nombreIterations++;
+            int meilleurA = -1;
+            int meilleurB = -1;
+            int meilleurDelta = Integer.MAX_VALUE;
+
+            for (int k = 0; k < tailleEchantillon; k++) {
+                int a = coeur[aleatoire.nextInt(coeur.length)];
+                int b = aleatoire.nextInt(n - 1);
+                if (b >= a) b++;
+                int delta = evaluateur.deltaEchange(a, b);
+                boolean tabou = tabouJusqua[a] > nombreIterations || tabouJusqua[b] > nombreIterations;
+                if (tabou && evaluateur.cout() + delta >= meilleurCout) continue;
+                if (delta < meilleurDelta) {
+                    meilleurDelta = delta;
+                    meilleurA = a;
+                    meilleurB = b;
+                }
+            }
+            if (meilleurA == -1) continue;
+
+            evaluateur.echanger(meilleurA, meilleurB);
+            affectation.validerJournal();
+            tabouJusqua[meilleurA] = nombreIterations + duree;
+            tabouJusqua[meilleurB] = nombreIterations + duree;
+            if (evaluateur.cout() < meilleurCout) {
+                meilleurCout = evaluateur.cout();
+                affectation.copierDans(meilleure);
+                Metriques.amelioration("tabou", meilleurCout);
+                budget.signalerAmelioration(meilleurCout, meilleure);
+            }
+        }
+
+        evaluateur.restaurer(meilleure);
+        return meilleurCout;
+    }
+
+    public int meilleurCout() {
+        return meilleurCout;
+    }
+
+    public long nombreIterations() {
+        return nombreIterations;
+    }
+}
@@ -0,0 +1,100 @@
+package Modele;
+
+import java.util.SplittableRandom;
+
+/**
+ * Recuit simulé sur le voisinage des échanges de ressources. Un échange tiré au hasard est accepté
+ * s'il ne dégrade pas le coût, ou avec la probabilité exp(-delta / T) sinon. La température décroît
+ * de {@code temperatureInitiale} à {@code temperatureFinale} selon la part du budget consommée.
+ */
+public class RecuitSimule {
+    /**
+     * Loi de décroissance de la température en fonction de la progression p (de 0 à 1).
+     */
+    public enum Refroidissement {
+        /** T = T0 * (Tf / T0)^p */
+        GEOMETRIQUE,
+        /** T = T0 + (Tf - T0) * p */
+        LINEAIRE
+    }
+
+    private final double temperatureInitiale;
+    private final double temperatureFinale;
+    private final Refroidissement refroidissement;
+    private final SplittableRandom aleatoire;
+
+    private int meilleurCout;
+    private long nombreIterations;
+
+    public RecuitSimule(double temperatureInitiale, double temperatureFinale, Refroidissement refroidissement, long graine) {
+        this.temperatureInitiale = temperatureInitiale;
+        this.temperatureFinale = temperatureFinale;
+        this.refroidissement = refroidissement;
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    /**
+     * Recuit avec des paramètres adaptés aux variations de coût (entières et petites) de ce problème.
+     */
+    public RecuitSimule(long graine) {
+        this(2.0, 0.05, Refroidissement.GEOMETRIQUE, graine);
+    }
+
+    /**
+     * Fait évoluer l'affectation suivie par l'évaluateur jusqu'à épuisement du budget,
+     * puis la remet dans le meilleur état rencontré.
+     *
+     * @return le coût de la meilleure affectation.
+     */
+    public int resoudre(EvaluateurCout evaluateur, Budget budget) {
+        Affectation affectation = evaluateur.getAffectation();
+        int n = affectation.taille();
+        // Un échange utile implique au moins un colon en conflit ; le cœur est non vide tant que le coût est positif
+        int[] coeur = evaluateur.colonsEnConflit();
+        int[] meilleure = affectation.instantane();
+        meilleurCout = evaluateur.cout();
+        nombreIterations = 0;
+        double temperature = temperatureInitiale;
+
+        while (n > 1 && !budget.objectifAtteint(meilleurCout) && !budget.epuise(nombreIterations)) {
+            if ((nombreIterations & 0x3FF) == 0) {
+                temperature = temperature(budget.progression(nombreIterations));
+            }
+            nombreIterations++;
+
+            int a = coeur[aleatoire.nextInt(coeur.length)];
+            int b = aleatoire.nextInt(n - 1);
+            if (b >= a) b++;
+
+            int delta = evaluateur.deltaEchange(a, b);
+            if (delta <= 0 || aleatoire.nextDouble() < Math.exp(-delta / temperature)) {
+                evaluateur.echanger(a, b);
+                affectation.validerJournal();
+                if (evaluateur.cout() < meilleurCout) {
+                    meilleurCout = evaluateur.cout();
+                    affectation.copierDans(meilleure);
+                    Metriques.amelioration("recuit", meilleurCout);
+                    budget.signalerAmelioration(meilleurCout, meilleure);
+                }
+            }
+        }
+
+        evaluateur.restaurer(meilleure);
+        return meilleurCout;
+    }
+
+    private double temperature(double progression) {
+        if (refroidissement == Refroidissement.LINEAIRE) {
+            return temperatureInitiale + (temperatureFinale - temperatureInitiale) * progression;
+        }
+        return temperatureInitiale * Math.pow(temperatureFinale / temperatureInitiale, progression);
+    }
+
+    public int meilleurCout() {
+        return meilleurCout;
+    }
+
+    public long nombreIterations() {
+        return nombreIterations;
+    }
+}
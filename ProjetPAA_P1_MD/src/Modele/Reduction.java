@@ -0,0 +1,152 @@
+package Modele;
+
+import java.util.Arrays;
+
+/**
+ * Prétraitement d'une instance. Un colon sans conflit ne peut jamais être jaloux : échanger les ressources
+ * de deux tels colons ne change rien, et la recherche peut se limiter aux échanges impliquant au moins
+ * un colon en conflit (le « cœur »). La jalousie d'un colon ne dépendant que de ses voisins, le cœur se
+ * décompose en composantes connexes du graphe des conflits, classées ici par taille décroissante.
+ * <p>
+ * L'affectation initiale réduite sert d'abord les colons du cœur, composante par composante en commençant
+ * par la plus grande, puis donne aux colons isolés les ressources restantes.
+ */
+public final class Reduction {
+    private final Instance instance;
+
+    /**
+     * Rang de la composante de chaque colon (0 : la plus grande), ou -1 pour un colon isolé.
+     */
+    private final int[] composanteDe;
+    private final int[] taillesComposantes;
+
+    /**
+     * Colons du cœur, regroupés par composante dans l'ordre des rangs, puis colons isolés.
+     */
+    private final int[] ordre;
+    private final int nombreEnConflit;
+
+    public Reduction(Instance instance) {
+        this.instance = instance;
+        GrapheConflits graphe = instance.getConflits();
+        int[] debut = graphe.debuts();
+        int[] voisins = graphe.voisins();
+        int n = instance.nombreColons();
+
+        // Parcours en largeur : la file des colons du cœur, composante après composante
+        int[] composante = new int[n];
+        Arrays.fill(composante, -1);
+        int[] file = new int[n];
+        int[] debutComposante = new int[n + 1];
+        int fin = 0;
+        int nombre = 0;
+        for (int s = 0; s < n; s++) {
+            if (composante[s] != -1 || debut[s] == debut[s + 1]) continue;
+            debutComposante[nombre] = fin;
+            composante[s] = nombre;
+            file[fin++] = s;
+            for (int tete = debutComposante[nombre]; tete < fin; tete++) {
+                int c = file[tete];
+                for (int i = debut[c]; i < debut[c + 1]; i++) {
+                    int v = voisins[i];
+                    if (composante[v] == -1) {
+                        composante[v] = nombre;
+                        file[fin++] = v;
+                    }
+                }
+            }
+            nombre++;
+        }
+        debutComposante[nombre] = fin;
+        nombreEnConflit = fin;
+
+        // Classement des composantes par taille décroissante (à égalité, par plus petit colon)
+        Integer[] parTaille = new Integer[nombre];
+        for (int k = 0; k < nombre; k++) parTaille[k] = k;
+        Arrays.sort(parTaille, (x, y) -> Integer.compare(
+                debutComposante[y + 1] - debutComposante[y], debutComposante[x + 1] - debutComposante[x]));
+        int[] rangDe = new int[nombre];
+        taillesComposantes = new int[nombre];
+        ordre = new int[n];
+        int position = 0;
+        for (int r = 0; r < nombre; r++) {
+            int k = parTaille[r];
+            rangDe[k] = r;
+            taillesComposantes[r] = debutComposante[k + 1] - debutComposante[k];
+            int depart = position;
+            for (int i = debutComposante[k]; i < debutComposante[k + 1]; i++) {
+                ordre[position++] = file[i];
+            }
+            Arrays.sort(ordre, depart, position);
+        }
+        for (int c = 0; c < n; c++) {
+            if (composante[c] == -1) {
+                ordre[position++] = c;
+            } else {
+                composante[c] = rangDe[composante[c]];
+            }
+        }
+        this.composanteDe = composante;
+    }
+
+    public int nombreComposantes() {
+        return taillesComposantes.length;
+    }
+
+    /**
+     * @param rang rang de la composante, 0 pour la plus grande.
+     */
+    public int tailleComposante(int rang) {
+        return taillesComposantes[rang];
+    }
+
+    /**
+     * @return le rang de la composante du colon, ou -1 s'il n'a aucun conflit.
+     */
+    public int composanteDe(int colon) {
+        return composanteDe[colon];
+    }
+
+    public int nombreColonsEnConflit() {
+        return nombreEnConflit;
+    }
+
+    public int nombreColonsIsoles() {
+        return ordre.length - nombreEnConflit;
+    }
+
+    /**
+     * @return les colons du cœur puis les colons isolés, dans l'ordre décrit plus haut.
+     */
+    public int[] ordreGlouton() {
+        return ordre.clone();
+    }
+
+    /**
+     * @return l'affectation gloutonne suivant {@link #ordreGlouton()} : les colons isolés prennent les restes.
+     */
+    public Affectation affectationInitiale() {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.DEPART);
+        Affectation affectation = Affectation.gloutonne(instance, ordre);
+        Metriques.fin(phase, "reduit", ordre.length, -1);
+        return affectation;
+    }
+
+    /**
+     * @param debut tableau des débuts du graphe au format CSR (taille n+1).
+     * @return les colons ayant au moins un conflit, par identifiant croissant.
+     */
+    static int[] colonsEnConflit(int[] debut) {
+        int n = debut.length - 1;
+        int nombre = 0;
+        for (int c = 0; c < n; c++) {
+            if (debut[c + 1] > debut[c]) nombre++;
+        }
+        int[] coeur = new int[nombre];
+        int k = 0;
+        for (int c = 0; c < n; c++) {
+            if (debut[c + 1] > debut[c]) coeur[k++] = c;
+        }
+        return coeur;
+    }
+}
@@ -0,0 +1,116 @@
+package Modele;
+
+/**
+ * Réparation locale d'une affectation après une {@link ModificationColonie}, au lieu d'une nouvelle
+ * résolution complète. La jalousie d'un colon ne dépend que de ses propres préférences et de ses voisins :
+ * seuls les colons touchés par la modification peuvent changer d'état. La réparation traite d'abord
+ * ceux d'entre eux qui sont jaloux, puis les jaloux de leur voisinage, puis, de proche en proche, les
+ * colons concernés par chaque échange appliqué.
+ * <p>
+ * Pour un colon jaloux, les partenaires essayés sont les détenteurs des ressources qu'il préfère à la sienne
+ * (au plus {@link #CANDIDATS_MAX}) ; le meilleur échange strictement améliorant est appliqué. Après une mise
+ * en place en O(n + m) (copie de l'affectation et état de jalousie), le travail est proportionnel au nombre
+ * de colons touchés et d'échanges appliqués, non à la taille de la colonie.
+ */
+public final class Reparation {
+    /**
+     * Nombre maximal de partenaires essayés pour un colon jaloux.
+     */
+    static final int CANDIDATS_MAX = 256;
+
+    private Reparation() {
+    }
+
+    /**
+     * @param modification modification de la colonie pour laquelle {@code precedente} avait été calculée.
+     * @param precedente   affectation de l'instance d'origine (non modifiée).
+     * @param budget       budget de la réparation ; chaque colon examiné compte pour une itération.
+     * @return l'affectation réparée pour l'instance {@link ModificationColonie#appliquer()}. La borne
+     * inférieure n'est pas calculée (elle coûterait O(n²)) : le résultat n'est déclaré optimal qu'à coût nul.
+     */
+    public static ResultatResolution reparer(ModificationColonie modification, Affectation precedente, Budget budget) {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.RECHERCHE);
+        Instance instance = modification.appliquer();
+        int n = instance.nombreColons();
+        EvaluateurCout evaluateur = new EvaluateurCout(instance, new Affectation(precedente.instantane()));
+        Affectation affectation = evaluateur.getAffectation();
+        int[] debut = instance.getConflits().debuts();
+        int[] voisins = instance.getConflits().voisins();
+        int[][] preferences = instance.matricePreferences();
+        int[][] rang = instance.matriceRangs();
+
+        // File circulaire des colons à examiner ; un colon n'y figure qu'une fois à la fois
+        int[] file = new int[n];
+        boolean[] enFile = new boolean[n];
+        int tete = 0;
+        int taille = 0;
+        int[] touches = modification.colonsTouches();
+        for (int c : touches) {
+            if (evaluateur.estJaloux(c)) {
+                file[(tete + taille++) % n] = c;
+                enFile[c] = true;
+            }
+        }
+        for (int c : touches) {
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                int v = voisins[i];
+                if (!enFile[v] && evaluateur.estJaloux(v)) {
+                    file[(tete + taille++) % n] = v;
+                    enFile[v] = true;
+                }
+            }
+        }
+
+        long iterations = 0;
+        int echanges = 0;
+        while (taille > 0 && !budget.objectifAtteint(evaluateur.cout()) && !budget.epuise(iterations)) {
+            iterations++;
+            int c = file[tete];
+            tete = (tete + 1) % n;
+            taille--;
+            enFile[c] = false;
+            if (!evaluateur.estJaloux(c)) continue;
+
+            int meilleurDelta = 0;
+            int partenaire = -1;
+            int limite = Math.min(rang[c][evaluateur.ressourceDe(c)], CANDIDATS_MAX);
+            for (int k = 0; k < limite; k++) {
+                int detenteur = affectation.colonDe(preferences[c][k]);
+                int delta = evaluateur.deltaEchange(c, detenteur);
+                if (delta < meilleurDelta) {
+                    meilleurDelta = delta;
+                    partenaire = detenteur;
+                }
+            }
+            if (partenaire == -1) continue;
+
+            evaluateur.echanger(c, partenaire);
+            affectation.validerJournal();
+            echanges++;
+            budget.signalerAmelioration(evaluateur.cout(), affectation.ressources());
+            // Les deux colons échangés et leurs voisins peuvent être devenus jaloux
+            for (int x : new int[]{c, partenaire}) {
+                taille = enfiler(x, evaluateur, file, enFile, tete, taille);
+                for (int i = debut[x]; i < debut[x + 1]; i++) {
+                    taille = enfiler(voisins[i], evaluateur, file, enFile, tete, taille);
+                }
+            }
+        }
+
+        ResultatResolution resultat = new ResultatResolution("reparation", affectation, evaluateur.cout(), 0,
+                evaluateur.nombreEvaluations(), echanges, budget.tempsEcouleMillis(), false);
+        return Metriques.finRecherche(phase, instance, resultat);
+    }
+
+    /**
+     * Ajoute le colon en fin de file s'il est jaloux et n'y est pas déjà.
+     *
+     * @return la nouvelle taille de la file.
+     */
+    private static int enfiler(int c, EvaluateurCout evaluateur, int[] file, boolean[] enFile, int tete, int taille) {
+        if (enFile[c] || !evaluateur.estJaloux(c)) return taille;
+        file[(tete + taille) % file.length] = c;
+        enFile[c] = true;
+        return taille + 1;
+    }
+}
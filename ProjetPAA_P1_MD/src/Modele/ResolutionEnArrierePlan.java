@@ -0,0 +1,86 @@
+package Modele;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Résolution menée sur un thread dédié, que l'appelant peut suivre ({@link #getSuivi()}), arrêter
+ * ({@link #arreter()}) en gardant la meilleure solution trouvée, ou attendre.
+ */
+public final class ResolutionEnArrierePlan {
+    private final Solveur solveur;
+    private final Budget budget;
+    private final SuiviResolution suivi = new SuiviResolution();
+    private final FutureTask<ResultatResolution> tache;
+
+    /**
+     * Lance la résolution immédiatement.
+     *
+     * @param depart affectation de départ (non modifiée).
+     * @param budget budget de la résolution ; son arrêt est celui de {@link #arreter()}.
+     */
+    public ResolutionEnArrierePlan(Solveur solveur, Instance instance, Affectation depart, Budget budget) {
+        this.solveur = solveur;
+        this.budget = budget;
+        budget.suivre(suivi);
+        suivi.depart(new EvaluateurCout(instance, new Affectation(depart.instantane())).cout(), depart.ressources());
+        tache = new FutureTask<>(() -> solveur.resoudre(instance, depart, budget));
+        Thread thread = new Thread(tache, "resolution-" + solveur.nom());
+        // Le programme peut se terminer sans attendre une recherche abandonnée
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Solveur getSolveur() {
+        return solveur;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public SuiviResolution getSuivi() {
+        return suivi;
+    }
+
+    public boolean estTerminee() {
+        return tache.isDone();
+    }
+
+    /**
+     * Demande l'arrêt ; la recherche rend sa meilleure solution au plus vite.
+     */
+    public void arreter() {
+        budget.arreter();
+    }
+
+    /**
+     * Attend la fin de la résolution.
+     *
+     * @throws IllegalStateException si le solveur a échoué.
+     */
+    public ResultatResolution attendre() throws InterruptedException {
+        try {
+            return tache.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("La résolution a échoué.", e.getCause());
+        }
+    }
+
+    /**
+     * Attend la fin de la résolution au plus le délai donné.
+     *
+     * @return le résultat, ou {@code null} si la résolution n'est pas terminée à temps.
+     */
+    public ResultatResolution attendre(long delaiMillis) throws InterruptedException {
+        try {
+            return tache.get(delaiMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("La résolution a échoué.", e.getCause());
+        }
+    }
+}
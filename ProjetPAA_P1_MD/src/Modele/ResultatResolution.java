@@ -0,0 +1,91 @@
+package Modele;
+
+/**
+ * Résultat immuable d'une résolution : l'affectation trouvée, son coût et des statistiques.
+ */
+public final class ResultatResolution {
+    private final String solveur;
+    private final int[] ressourceDe;
+    private final int cout;
+    private final int borneInferieure;
+    private final long evaluations;
+    private final long iterations;
+    private final long dureeMillis;
+    private final boolean optimal;
+
+    /**
+     * @param solveur     nom du solveur ayant produit le résultat.
+     * @param affectation affectation trouvée (copiée).
+     * @param cout        nombre de colons jaloux.
+     * @param borne       borne inférieure du coût de l'instance ({@link BorneInferieure}).
+     * @param evaluations nombre de variations de coût évaluées.
+     * @param iterations  nombre d'itérations (mouvements, tours ou nœuds, selon le solveur).
+     * @param dureeMillis durée de la résolution.
+     * @param optimal     {@code true} si l'optimalité du coût est prouvée par le solveur lui-même ;
+     *                    elle l'est aussi dès que le coût atteint la borne.
+     */
+    public ResultatResolution(String solveur, Affectation affectation, int cout, int borne, long evaluations,
+                              long iterations, long dureeMillis, boolean optimal) {
+        this.solveur = solveur;
+        this.ressourceDe = affectation.instantane();
+        this.cout = cout;
+        this.borneInferieure = borne;
+        this.evaluations = evaluations;
+        this.iterations = iterations;
+        this.dureeMillis = dureeMillis;
+        this.optimal = optimal || cout <= borne;
+    }
+
+    public String getSolveur() {
+        return solveur;
+    }
+
+    /**
+     * @return une nouvelle affectation égale à celle trouvée, que l'appelant peut modifier.
+     */
+    public Affectation getAffectation() {
+        return new Affectation(ressourceDe);
+    }
+
+    /**
+     * @return la ressource affectée au colon.
+     */
+    public int ressourceDe(int colon) {
+        return ressourceDe[colon];
+    }
+
+    public int getCout() {
+        return cout;
+    }
+
+    public int getBorneInferieure() {
+        return borneInferieure;
+    }
+
+    /**
+     * @return l'écart entre le coût et la borne inférieure ; 0 prouve l'optimalité.
+     */
+    public int getEcart() {
+        return cout - borneInferieure;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getDureeMillis() {
+        return dureeMillis;
+    }
+
+    /**
+     * @return {@code true} si le coût est prouvé optimal (coût égal à la borne inférieure,
+     * ou recherche exacte menée à son terme).
+     */
+    public boolean estOptimal() {
+        return optimal;
+    }
+}
@@ -0,0 +1,502 @@
+package Modele;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serveur de résolution local : une JVM qui reste démarrée (et compilée par le JIT) pour résoudre une suite
+ * de colonies sans payer à chaque fois le démarrage et la chauffe, qui dominent le temps des petites instances.
+ * <p>
+ * Requêtes HTTP sur {@code 127.0.0.1} :
+ * <ul>
+ * <li>{@code POST /resoudre[?methode=m&duree=ms]} : le corps est une colonie dans la grammaire des fichiers
+ * texte, ou son équivalent JSON {@code {"colons": [...], "ressources": [...], "deteste": [["A", "B"], ...],
+ * "preferences": {"A": [...], ...}}} (champs facultatifs {@code "methode"} et {@code "duree"}). La réponse
+ * donne l'affectation dans le même format : lignes {@code colon:ressource} avec le coût et la borne dans les
+ * en-têtes {@code X-Cout} et {@code X-Borne}, ou objet JSON ;</li>
+ * <li>{@code GET /etat} : requêtes en cours, en attente, traitées et refusées.</li>
+ * </ul>
+ * Le nombre de requêtes admises (lues, en attente ou en résolution) est borné : au-delà, le serveur répond
+ * aussitôt 503 et le client doit réessayer plus tard. Chaque requête a sa durée, plafonnée par le serveur
+ * et comptée depuis son admission : l'attente dans la file est prise sur la recherche, pour que la latence
+ * reste dans le budget demandé. Les petites instances sont regroupées par lots sur les threads de résolution,
+ * les grandes ont chacune leur tâche ; chaque résolution reste sur un seul thread.
+ * <p>
+ * Les résultats passent par un {@link CacheResultats} (en mémoire, et sur disque avec {@code -cache dossier}) :
+ * une colonie déjà résolue avec au moins la même durée est rendue sans recherche.
+ * <p>
+ * Usage : {@code ServeurResolution [-port p] [-methode m] [-duree ms] [-dureeMax ms] [-threads n]
+ * [-capacite k] [-petite colons] [-tailleMax Mo] [-cache dossier] [-cacheEntrees k]}.
+ */
+public class ServeurResolution {
+    /**
+     * Nombre maximal de petites instances résolues par une même tâche avant de rendre la main aux grandes.
+     */
+    private static final int LOT_MAX = 32;
+
+    private int port = 8080;
+    private String methode = "recuit";
+    private long dureeMillis = 1000;
+    private long dureeMaxMillis = 60_000;
+    private int nombreThreads = Runtime.getRuntime().availableProcessors();
+    private int capacite = 256;
+    private int seuilPetite = 2000;
+    private long tailleMax = 64L << 20;
+    private String dossierCache;
+    private int entreesCache = 512;
+
+    private HttpServer serveur;
+    private ExecutorService resolution;
+    private Semaphore places;
+    private CacheResultats cache;
+    private final ConcurrentLinkedQueue<Requete> petites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger lotsEnCours = new AtomicInteger();
+    private final AtomicInteger enResolution = new AtomicInteger();
+    private final AtomicLong numero = new AtomicLong();
+    private final AtomicLong traitees = new AtomicLong();
+    private final AtomicLong refusees = new AtomicLong();
+
+    /**
+     * Requête admise, en attente de résolution.
+     */
+    private static final class Requete {
+        private final long numero;
+        private final HttpExchange echange;
+        private final Instance instance;
+        private final String methode;
+        private final long dureeMillis;
+        private final boolean json;
+        private final long admission;
+
+        Requete(long numero, HttpExchange echange, Instance instance, String methode, long dureeMillis, boolean json,
+                long admission) {
+            this.numero = numero;
+            this.echange = echange;
+            this.instance = instance;
+            this.methode = methode;
+            this.dureeMillis = dureeMillis;
+            this.json = json;
+            this.admission = admission;
+        }
+    }
+
+    public static void main(String[] args) {
+        ServeurResolution serveur = new ServeurResolution();
+        if (!serveur.lireArguments(args)) {
+            System.out.println("Usage : ServeurResolution [-port p] [-methode " + String.join("|", Solveurs.NOMS)
+                    + "] [-duree ms] [-dureeMax ms] [-threads n] [-capacite k] [-petite colons] [-tailleMax Mo]"
+                    + " [-cache dossier] [-cacheEntrees k]");
+            System.exit(2);
+        }
+        try {
+            serveur.demarrer();
+        } catch (IOException e) {
+            System.out.println("Impossible de démarrer le serveur : " + e.getMessage());
+            System.exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(serveur::arreter));
+    }
+
+    private boolean lireArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-port":
+                        port = Integer.parseInt(args[++i]);
+                        break;
+                    case "-methode":
+                        methode = args[++i];
+                        break;
+                    case "-duree":
+                        dureeMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "-dureeMax":
+                        dureeMaxMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "-threads":
+                        nombreThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "-capacite":
+                        capacite = Integer.parseInt(args[++i]);
+                        break;
+                    case "-petite":
+                        seuilPetite = Integer.parseInt(args[++i]);
+                        break;
+                    case "-tailleMax":
+                        tailleMax = Long.parseLong(args[++i]) << 20;
+                        break;
+                    case "-cache":
+                        dossierCache = args[++i];
+                        break;
+                    case "-cacheEntrees":
+                        entreesCache = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        System.out.println("Option inconnue : " + args[i]);
+                        return false;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            System.out.println("Valeur d'option manquante ou incorrecte.");
+            return false;
+        }
+        if (!Solveurs.NOMS.contains(methode)) {
+            System.out.println("Méthode inconnue : " + methode);
+            return false;
+        }
+        return port >= 0 && nombreThreads > 0 && capacite > 0 && dureeMillis > 0 && dureeMaxMillis >= dureeMillis
+                && entreesCache > 0;
+    }
+
+    /**
+     * Ouvre le port et commence à accepter les requêtes.
+     */
+    public void demarrer() throws IOException {
+        places = new Semaphore(capacite);
+        cache = new CacheResultats(entreesCache, dossierCache == null ? null : Paths.get(dossierCache));
+        resolution = Executors.newFixedThreadPool(nombreThreads);
+        serveur = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        serveur.createContext("/resoudre", this::recevoir);
+        serveur.createContext("/etat", this::etat);
+        // La lecture des colonies se fait sur ces threads, la résolution sur ceux du pool
+        serveur.setExecutor(Executors.newFixedThreadPool(2));
+        serveur.start();
+        System.out.println("Serveur de résolution sur http://127.0.0.1:" + serveur.getAddress().getPort()
+                + " (" + nombreThreads + " thread(s), " + capacite + " requête(s) au plus, méthode " + methode + ")");
+    }
+
+    /**
+     * Cesse d'accepter des requêtes et laisse une seconde aux résolutions en cours.
+     */
+    public void arreter() {
+        if (serveur == null) return;
+        serveur.stop(0);
+        resolution.shutdown();
+        try {
+            resolution.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        resolution.shutdownNow();
+        ((ExecutorService) serveur.getExecutor()).shutdownNow();
+    }
+
+    /**
+     * @return le port d'écoute (utile avec {@code -port 0}).
+     */
+    public int getPort() {
+        return serveur.getAddress().getPort();
+    }
+
+    /**
+     * Admet la requête s'il reste de la place, lit la colonie et la confie à la résolution.
+     */
+    private void recevoir(HttpExchange echange) throws IOException {
+        if (!echange.getRequestMethod().equals("POST")) {
+            repondre(echange, 405, "Méthode HTTP non prise en charge : utiliser POST.\n");
+            return;
+        }
+        // Refus avant la lecture du corps : une file pleine ne doit pas coûter la lecture de la colonie
+        if (!places.tryAcquire()) {
+            refusees.incrementAndGet();
+            echange.getResponseHeaders().set("Retry-After", "1");
+            repondre(echange, 503, "Serveur occupé : " + capacite + " requête(s) déjà en cours.\n");
+            return;
+        }
+        long admission = System.nanoTime();
+        boolean confiee = false;
+        try {
+            byte[] corps = lireCorps(echange.getRequestBody());
+            if (corps == null) {
+                repondre(echange, 413, "Colonie trop grande (au plus " + (tailleMax >> 20) + " Mo).\n");
+                return;
+            }
+            Map<String, String> parametres = parametres(echange.getRequestURI().getRawQuery());
+            int premier = 0;
+            while (premier < corps.length && Character.isWhitespace(corps[premier])) premier++;
+            boolean json = premier < corps.length && corps[premier] == '{';
+
+            String methodeRequete = parametres.get("methode");
+            String duree = parametres.get("duree");
+            byte[] colonie = corps;
+            if (json) {
+                Map<?, ?> objet = objetJson(new String(corps, StandardCharsets.UTF_8));
+                colonie = versGrammaire(objet);
+                if (methodeRequete == null && objet.get("methode") instanceof String) {
+                    methodeRequete = (String) objet.get("methode");
+                }
+                if (duree == null && objet.get("duree") instanceof Double) {
+                    duree = String.valueOf(((Double) objet.get("duree")).longValue());
+                }
+            }
+            if (methodeRequete == null) methodeRequete = methode;
+            if (!Solveurs.NOMS.contains(methodeRequete)) {
+                repondre(echange, 400, "Méthode inconnue : " + methodeRequete + ".\n");
+                return;
+            }
+            long dureeRequete = dureeMillis;
+            if (duree != null) {
+                try {
+                    dureeRequete = Math.max(1, Math.min(Long.parseLong(duree), dureeMaxMillis));
+                } catch (NumberFormatException e) {
+                    repondre(echange, 400, "Durée incorrecte : " + duree + ".\n");
+                    return;
+                }
+            }
+
+            LecteurColonie lecteur = new LecteurColonie();
+            Instance instance = lecteur.analyser(colonie);
+            if (instance == null) {
+                repondre(echange, 400, lecteur.getDerniereErreur() + "\n");
+                return;
+            }
+            soumettre(new Requete(numero.incrementAndGet(), echange, instance, methodeRequete, dureeRequete, json, admission));
+            confiee = true;
+        } catch (FormatIncorrectException e) {
+            repondre(echange, 400, e.getMessage() + "\n");
+        } catch (RuntimeException | Error e) {
+            // Sans réponse, le client attendrait indéfiniment
+            System.out.println("Requête rejetée (" + e + ")");
+            repondre(echange, 500, "Requête non traitée : " + e + "\n");
+        } finally {
+            if (!confiee) places.release();
+        }
+    }
+
+    /**
+     * Confie la requête au pool : une tâche par grande instance, des lots pour les petites.
+     */
+    private void soumettre(Requete requete) {
+        if (requete.instance.nombreColons() <= seuilPetite) {
+            petites.add(requete);
+            planifierLot();
+        } else {
+            resolution.execute(() -> traiter(requete));
+        }
+    }
+
+    /**
+     * Lance une tâche de lot si des petites instances attendent et que tous les threads n'en exécutent pas déjà une.
+     */
+    private void planifierLot() {
+        while (!petites.isEmpty()) {
+            int lots = lotsEnCours.get();
+            if (lots >= nombreThreads) return;
+            if (lotsEnCours.compareAndSet(lots, lots + 1)) {
+                resolution.execute(this::traiterLot);
+                return;
+            }
+        }
+    }
+
+    private void traiterLot() {
+        try {
+            for (int k = 0; k < LOT_MAX; k++) {
+                Requete requete = petites.poll();
+                if (requete == null) break;
+                traiter(requete);
+            }
+        } finally {
+            lotsEnCours.decrementAndGet();
+            // Une requête ajoutée pendant la fin du lot n'aurait pas pu en planifier un autre
+            planifierLot();
+        }
+    }
+
+    /**
+     * Résout une requête et envoie la réponse ; la place de la requête est libérée dans tous les cas.
+     */
+    private void traiter(Requete requete) {
+        enResolution.incrementAndGet();
+        try {
+            long attente = (System.nanoTime() - requete.admission) / 1_000_000;
+            Budget budget = Budget.duree(Math.max(1, requete.dureeMillis - attente));
+            Solveur solveur = Solveurs.parNom(requete.methode, requete.numero, 1);
+            ResultatResolution resultat = cache.resoudre(solveur, requete.instance, budget);
+            long total = (System.nanoTime() - requete.admission) / 1_000_000;
+            traitees.incrementAndGet();
+            System.out.println("#" + requete.numero + " : " + requete.instance.nombreColons() + " colons, coût "
+                    + resultat.getCout() + " (borne " + resultat.getBorneInferieure() + ", " + resultat.getSolveur() + ") en " + total + " ms"
+                    + (attente > 0 ? " dont " + attente + " ms d'attente" : ""));
+            envoyerResultat(requete, resultat, total);
+        } catch (IOException e) {
+            System.out.println("#" + requete.numero + " : réponse non envoyée (" + e.getMessage() + ")");
+        } catch (RuntimeException | Error e) {
+            System.out.println("#" + requete.numero + " : échec de la résolution (" + e + ")");
+            try {
+                repondre(requete.echange, 500, "Échec de la résolution : " + e + "\n");
+            } catch (IOException ignore) {
+                // Le client est déjà parti
+            }
+        } finally {
+            enResolution.decrementAndGet();
+            places.release();
+        }
+    }
+
+    private void envoyerResultat(Requete requete, ResultatResolution resultat, long totalMillis) throws IOException {
+        TableNoms colons = requete.instance.getColons();
+        TableNoms ressources = requete.instance.getRessources();
+        Affectation affectation = resultat.getAffectation();
+        StringBuilder sb = new StringBuilder();
+        if (requete.json) {
+            sb.append("{\"methode\": ").append(Json.chaine(resultat.getSolveur()))
+                    .append(", \"cout\": ").append(resultat.getCout())
+                    .append(", \"borne\": ").append(resultat.getBorneInferieure())
+                    .append(", \"optimal\": ").append(resultat.estOptimal())
+                    .append(", \"duree_ms\": ").append(totalMillis)
+                    .append(", \"affectation\": {");
+            for (int c = 0; c < affectation.taille(); c++) {
+                if (c > 0) sb.append(", ");
+                sb.append(Json.chaine(colons.nom(c))).append(": ").append(Json.chaine(ressources.nom(affectation.ressourceDe(c))));
+            }
+            sb.append("}}\n");
+            requete.echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        } else {
+            for (int c = 0; c < affectation.taille(); c++) {
+                sb.append(colons.nom(c)).append(':').append(ressources.nom(affectation.ressourceDe(c))).append('\n');
+            }
+            requete.echange.getResponseHeaders().set("X-Cout", String.valueOf(resultat.getCout()));
+            requete.echange.getResponseHeaders().set("X-Borne", String.valueOf(resultat.getBorneInferieure()));
+            requete.echange.getResponseHeaders().set("X-Duree-Ms", String.valueOf(totalMillis));
+        }
+        repondre(requete.echange, 200, sb.toString());
+    }
+
+    private void etat(HttpExchange echange) throws IOException {
+        int admises = capacite - places.availablePermits();
+        int enCours = enResolution.get();
+        echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        repondre(echange, 200, "{\"en_resolution\": " + enCours + ", \"en_attente\": " + Math.max(0, admises - enCours)
+                + ", \"capacite\": " + capacite + ", \"traitees\": " + traitees.get() + ", \"refusees\": " + refusees.get() + "}\n");
+    }
+
+    /**
+     * @return le corps de la requête, ou {@code null} s'il dépasse la taille maximale.
+     */
+    private byte[] lireCorps(InputStream entree) throws IOException {
+        ByteArrayOutputStream corps = new ByteArrayOutputStream();
+        byte[] tampon = new byte[64 << 10];
+        int lus;
+        while ((lus = entree.read(tampon)) != -1) {
+            if (corps.size() + lus > tailleMax) return null;
+            corps.write(tampon, 0, lus);
+        }
+        return corps.toByteArray();
+    }
+
+    private static Map<String, String> parametres(String requete) {
+        Map<String, String> parametres = new HashMap<>();
+        if (requete == null) return parametres;
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            if (egal > 0) {
+                parametres.put(URLDecoder.decode(paire.substring(0, egal), StandardCharsets.UTF_8),
+                        URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parametres;
+    }
+
+    private static Map<?, ?> objetJson(String texte) throws FormatIncorrectException {
+        Object valeur = Json.lire(texte);
+        if (!(valeur instanceof Map)) throw new FormatIncorrectException("JSON incorrect : objet attendu.");
+        return (Map<?, ?>) valeur;
+    }
+
+    /**
+     * Traduit la colonie JSON dans la grammaire des fichiers texte, pour qu'elle passe par les mêmes
+     * vérifications que celles lues sur disque. Chaque nom est vérifié avant d'être recopié (voir {@link #nom}) :
+     * un nom contenant un délimiteur de la grammaire ajouterait sinon des déclarations absentes du JSON.
+     */
+    private static byte[] versGrammaire(Map<?, ?> objet) throws FormatIncorrectException {
+        StringBuilder sb = new StringBuilder();
+        for (Object colon : liste(objet, "colons")) {
+            sb.append("colon(").append(nom(colon, "colons")).append(").\n");
+        }
+        for (Object ressource : liste(objet, "ressources")) {
+            sb.append("ressource(").append(nom(ressource, "ressources")).append(").\n");
+        }
+        Object deteste = objet.get("deteste");
+        if (deteste != null) {
+            for (Object paire : liste(objet, "deteste")) {
+                if (!(paire instanceof List) || ((List<?>) paire).size() != 2) {
+                    throw new FormatIncorrectException("JSON incorrect : chaque élément de \"deteste\" doit être une paire de colons.");
+                }
+                sb.append("deteste(").append(nom(((List<?>) paire).get(0), "deteste")).append(", ")
+                        .append(nom(((List<?>) paire).get(1), "deteste")).append(").\n");
+            }
+        }
+        Object preferences = objet.get("preferences");
+        if (!(preferences instanceof Map)) {
+            throw new FormatIncorrectException("JSON incorrect : \"preferences\" doit être un objet.");
+        }
+        for (Map.Entry<?, ?> entree : ((Map<?, ?>) preferences).entrySet()) {
+            if (!(entree.getValue() instanceof List)) {
+                throw new FormatIncorrectException("JSON incorrect : préférences de " + entree.getKey() + " non listées.");
+            }
+            sb.append("preferences(").append(nom(entree.getKey(), "preferences"));
+            for (Object ressource : (List<?>) entree.getValue()) {
+                sb.append(", ").append(nom(ressource, "preferences"));
+            }
+            sb.append(").\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<?> liste(Map<?, ?> objet, String cle) throws FormatIncorrectException {
+        Object valeur = objet.get(cle);
+        if (!(valeur instanceof List)) {
+            throw new FormatIncorrectException("JSON incorrect : \"" + cle + "\" doit être un tableau.");
+        }
+        return (List<?>) valeur;
+    }
+
+    /**
+     * @param champ champ JSON d'où vient le nom, cité dans l'erreur.
+     * @return le nom, s'il est valide pour la grammaire ({@link TableNoms#estNomValide}).
+     * @throws FormatIncorrectException sinon.
+     */
+    private static String nom(Object valeur, String champ) throws FormatIncorrectException {
+        if (!(valeur instanceof String)) {
+            throw new FormatIncorrectException("JSON incorrect : nom attendu dans \"" + champ + "\" au lieu de " + valeur + ".");
+        }
+        String nom = (String) valeur;
+        if (!TableNoms.estNomValide(nom)) {
+            throw new FormatIncorrectException("JSON incorrect : nom " + Json.chaine(nom) + " invalide dans \"" + champ
+                    + "\" (lettres et chiffres uniquement).");
+        }
+        return nom;
+    }
+
+    private static void repondre(HttpExchange echange, int code, String texte) throws IOException {
+        byte[] octets = texte.getBytes(StandardCharsets.UTF_8);
+        if (!echange.getResponseHeaders().containsKey("Content-Type")) {
+            echange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        echange.sendResponseHeaders(code, octets.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(octets);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package Modele;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Session d'échanges manuels ou scriptés sur une affectation. L'ensemble des colons jaloux est tenu
+ * à jour à chaque échange : seuls les deux colons échangés et leurs voisins dans le graphe des conflits
+ * peuvent changer d'état, ce qui coûte O(degré) au lieu d'un recalcul complet.
+ */
+public class SessionAffectation {
+    private final Instance instance;
+    private final EvaluateurCout evaluateur;
+    private final int[] debut;
+    private final int[] voisins;
+
+    /**
+     * Colons jaloux, sans ordre particulier, et position de chaque colon dans ce tableau (-1 s'il n'est pas jaloux).
+     */
+    private final int[] jaloux;
+    private final int[] position;
+    private int nombreJaloux;
+
+    /**
+     * @param affectation affectation suivie ; elle ne doit ensuite être modifiée qu'à travers la session.
+     */
+    public SessionAffectation(Instance instance, Affectation affectation) {
+        this.instance = instance;
+        this.evaluateur = new EvaluateurCout(instance, affectation);
+        this.debut = instance.getConflits().debuts();
+        this.voisins = instance.getConflits().voisins();
+        int n = instance.nombreColons();
+        this.jaloux = new int[n];
+        this.position = new int[n];
+        Arrays.fill(position, -1);
+        for (int c = 0; c < n; c++) {
+            actualiser(c);
+        }
+    }
+
+    public Affectation getAffectation() {
+        return evaluateur.getAffectation();
+    }
+
+    public int cout() {
+        return nombreJaloux;
+    }
+
+    public boolean estJaloux(int colon) {
+        return position[colon] != -1;
+    }
+
+    /**
+     * @return les colons jaloux, par identifiant croissant.
+     */
+    public int[] colonsJaloux() {
+        int[] liste = Arrays.copyOf(jaloux, nombreJaloux);
+        Arrays.sort(liste);
+        return liste;
+    }
+
+    /**
+     * Échange les ressources de deux colons.
+     *
+     * @return le nouveau coût.
+     */
+    public int echanger(int a, int b) {
+        evaluateur.echanger(a, b);
+        // Les échanges de la session ne sont jamais annulés
+        evaluateur.getAffectation().validerJournal();
+        actualiser(a);
+        actualiser(b);
+        for (int i = debut[a]; i < debut[a + 1]; i++) actualiser(voisins[i]);
+        for (int i = debut[b]; i < debut[b + 1]; i++) actualiser(voisins[i]);
+        return nombreJaloux;
+    }
+
+    /**
+     * Applique un script d'échanges : une ligne {@code colon1 colon2} par échange (noms séparés par des espaces),
+     * les lignes vides et celles commençant par {@code #} étant ignorées. Une ligne incorrecte est signalée
+     * dans le résultat et sautée ; les échanges suivants sont tout de même appliqués.
+     */
+    public Rejeu rejouer(BufferedReader script) throws IOException {
+        TableNoms noms = instance.getColons();
+        Rejeu rejeu = new Rejeu();
+        String ligne;
+        int numero = 0;
+        while ((ligne = script.readLine()) != null) {
+            numero++;
+            ligne = ligne.trim();
+            if (ligne.isEmpty() || ligne.startsWith("#")) continue;
+            String[] parties = ligne.split("\\s+");
+            if (parties.length != 2) {
+                rejeu.erreurs.add("Ligne " + numero + " : format incorrect, attendu 'colon1 colon2'.");
+                continue;
+            }
+            int a = noms.id(parties[0]);
+            int b = noms.id(parties[1]);
+            if (a == -1 || b == -1) {
+                rejeu.erreurs.add("Ligne " + numero + " : colon inconnu.");
+                continue;
+            }
+            rejeu.ajouter(a, b, echanger(a, b));
+        }
+        return rejeu;
+    }
+
+    /**
+     * Replace le colon dans l'ensemble des jaloux ou l'en retire, selon son état dans l'évaluateur.
+     */
+    private void actualiser(int c) {
+        boolean estJaloux = evaluateur.estJaloux(c);
+        if (estJaloux && position[c] == -1) {
+            position[c] = nombreJaloux;
+            jaloux[nombreJaloux++] = c;
+        } else if (!estJaloux && position[c] != -1) {
+            int dernier = jaloux[--nombreJaloux];
+            jaloux[position[c]] = dernier;
+            position[dernier] = position[c];
+            position[c] = -1;
+        }
+    }
+
+    /**
+     * Résultat d'un rejeu de script : les échanges appliqués avec le coût après chacun, et les lignes rejetées.
+     */
+    public static final class Rejeu {
+        private int[] echanges = new int[48];
+        private int nombre;
+        private final List<String> erreurs = new ArrayList<>();
+
+        private void ajouter(int a, int b, int cout) {
+            if (3 * nombre + 3 > echanges.length) {
+                echanges = Arrays.copyOf(echanges, echanges.length * 2);
+            }
+            echanges[3 * nombre] = a;
+            echanges[3 * nombre + 1] = b;
+            echanges[3 * nombre + 2] = cout;
+            nombre++;
+        }
+
+        public int nombreEchanges() {
+            return nombre;
+        }
+
+        public int colonA(int i) {
+            return echanges[3 * i];
+        }
+
+        public int colonB(int i) {
+            return echanges[3 * i + 1];
+        }
+
+        /**
+         * @return le coût après le i-ème échange appliqué.
+         */
+        public int coutApres(int i) {
+            return echanges[3 * i + 2];
+        }
+
+        public List<String> getErreurs() {
+            return Collections.unmodifiableList(erreurs);
+        }
+    }
+}
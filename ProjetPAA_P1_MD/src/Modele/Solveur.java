@@ -0,0 +1,31 @@
+package Modele;
+
+/**
+ * Stratégie de résolution d'une instance, utilisable sans console : aucune méthode n'écrit sur la sortie.
+ * Les stratégies disponibles sont créées par {@link Solveurs}.
+ */
+public interface Solveur {
+
+    /**
+     * @return le nom court de la stratégie (par exemple "tabou").
+     */
+    String nom();
+
+    /**
+     * Résout l'instance en respectant le budget (durée, itérations, arrêt extérieur). Les stratégies
+     * qui s'arrêtent d'elles-mêmes à un optimum local ne consultent le budget que pour un arrêt.
+     * Une même stratégie peut être appelée depuis plusieurs threads à la fois.
+     *
+     * @param depart affectation de départ ; elle n'est pas modifiée.
+     * @return le meilleur résultat trouvé.
+     */
+    ResultatResolution resoudre(Instance instance, Affectation depart, Budget budget);
+
+    /**
+     * Résout l'instance à partir de l'affectation gloutonne réduite : les colons en conflit choisissent
+     * d'abord, les colons sans conflit prennent les ressources restantes (voir {@link Reduction}).
+     */
+    default ResultatResolution resoudre(Instance instance, Budget budget) {
+        return resoudre(instance, new Reduction(instance).affectationInitiale(), budget);
+    }
+}
@@ -0,0 +1,337 @@
+package Modele;
+
+import java.util.*;
+
+/**
+ * Résolution exacte par séparation et évaluation : les colons sont affectés un par un, en
+ * commençant par celui qui a le moins de ressources libres lui évitant la jalousie (à égalité,
+ * selon un ordre par degré décroissant dans le graphe des conflits), chacun essayant les ressources
+ * libres dans l'ordre de ses préférences. Une branche est coupée dès que la borne inférieure
+ * (colons déjà jaloux + colons non affectés qui le seront forcément) atteint le meilleur coût connu.
+ * Les colons sans conflit ne peuvent jamais être jaloux : ils reçoivent les ressources restantes à la fin.
+ * La recherche s'arrête, optimalité prouvée, dès que le meilleur coût atteint l'objectif du budget.
+ * <p>
+ * L'arbre est parcouru avec une pile explicite, dont la hauteur est le nombre de colons en conflit :
+ * la taille de la colonie n'est pas limitée par celle de la pile d'appels. Chaque nœud coûte un examen
+ * des colons non affectés, en O(n·degré) : l'horloge du budget y est consultée à chaque nœud.
+ */
+public class SolveurExact {
+    private final Instance instance;
+    private final int[][] rang;
+    private final int[][] preferences;
+    private final int[] debut;
+    private final int[] voisins;
+    private final long dureeMaxMillis;
+
+    /**
+     * Colons avec au moins un conflit, dans l'ordre où ils sont affectés.
+     */
+    private int[] ordre;
+    private int[] ressourceDe;
+    private boolean[] libre;
+    private boolean[] jaloux;
+    private int nombreJaloux;
+
+    /**
+     * Pile des colons devenus jaloux, pour pouvoir défaire une affectation.
+     */
+    private int[] pileJaloux;
+    private int taillePile;
+
+    /**
+     * Position, dans {@link #ordre}, du prochain colon à affecter.
+     */
+    private int prochain;
+
+    /**
+     * Pour chaque profondeur : position d'où son colon a été tiré dans {@link #ordre}, indice de la
+     * prochaine préférence à essayer, ressource essayée (-1 : aucune) et hauteur de {@link #pileJaloux} avant l'essai.
+     */
+    private int[] positionTiree;
+    private int[] essai;
+    private int[] essayee;
+    private int[] marque;
+
+    private int[] meilleure;
+    private int meilleurCout;
+    private int objectif;
+    private long nombreNoeuds;
+    private Budget budget;
+    private boolean interrompu;
+
+    /**
+     * @param instance       instance à résoudre.
+     * @param dureeMaxMillis durée maximale de la recherche ; au-delà, la meilleure solution trouvée
+     *                       est rendue sans preuve d'optimalité.
+     */
+    public SolveurExact(Instance instance, long dureeMaxMillis) {
+        this.instance = instance;
+        this.rang = instance.matriceRangs();
+        this.preferences = instance.matricePreferences();
+        this.debut = instance.getConflits().debuts();
+        this.voisins = instance.getConflits().voisins();
+        this.dureeMaxMillis = dureeMaxMillis;
+    }
+
+    /**
+     * Lance la recherche.
+     *
+     * @param depart affectation servant de première borne supérieure.
+     * @return la meilleure affectation trouvée.
+     */
+    public Affectation resoudre(Affectation depart) {
+        return resoudre(depart, Budget.duree(dureeMaxMillis));
+    }
+
+    /**
+     * Lance la recherche sous un budget donné (durée, arrêt extérieur) au lieu de la durée du constructeur ;
+     * chaque nœud de l'arbre compte pour une itération.
+     */
+    public Affectation resoudre(Affectation depart, Budget budget) {
+        this.budget = budget;
+        meilleure = depart.instantane();
+        if (budget.estTermine()) {
+            // Budget déjà épuisé (par exemple par la descente qui précède) : pas de mise en place en O(n + m)
+            interrompu = true;
+            nombreNoeuds = 0;
+            meilleurCout = new EvaluateurCout(instance, new Affectation(meilleure)).cout();
+            return new Affectation(meilleure);
+        }
+        int n = instance.nombreColons();
+        GrapheConflits graphe = instance.getConflits();
+        ordre = ordreParDegre(graphe);
+        ressourceDe = new int[n];
+        Arrays.fill(ressourceDe, -1);
+        libre = new boolean[n];
+        Arrays.fill(libre, true);
+        jaloux = new boolean[n];
+        nombreJaloux = 0;
+        pileJaloux = new int[n];
+        taillePile = 0;
+        nombreNoeuds = 0;
+        interrompu = false;
+        positionTiree = new int[ordre.length];
+        essai = new int[ordre.length];
+        essayee = new int[ordre.length];
+        marque = new int[ordre.length];
+
+        meilleurCout = new EvaluateurCout(instance, new Affectation(meilleure)).cout();
+        objectif = budget.objectif();
+        if (meilleurCout > objectif) {
+            explorer();
+        }
+        return new Affectation(meilleure);
+    }
+
+    public int cout() {
+        return meilleurCout;
+    }
+
+    /**
+     * @return {@code true} si la recherche est allée à son terme, la solution rendue étant alors optimale.
+     */
+    public boolean optimaliteProuvee() {
+        return !interrompu;
+    }
+
+    public long nombreNoeuds() {
+        return nombreNoeuds;
+    }
+
+    /**
+     * Ordre d'affectation : on part du colon de plus fort degré, puis on prend à chaque fois le colon
+     * ayant le plus de voisins déjà ordonnés (à égalité, le plus fort degré), pour que les jalousies
+     * apparaissent le plus tôt possible dans l'arbre (à égalité complète, le plus petit identifiant).
+     * La file de priorité garde une entrée par valeur prise par le compteur d'un colon ; les entrées
+     * périmées sont ignorées, d'où un coût en O((n + m) log m).
+     */
+    private static int[] ordreParDegre(GrapheConflits graphe) {
+        int n = graphe.nombreColons();
+        int[] debut = graphe.debuts();
+        int[] voisins = graphe.voisins();
+        int[] voisinsOrdonnes = new int[n];
+        boolean[] place = new boolean[n];
+        // Entrée {voisins ordonnés, colon} : plus de voisins ordonnés, puis plus fort degré, puis plus petit colon
+        PriorityQueue<int[]> file = new PriorityQueue<>((x, y) -> x[0] != y[0] ? Integer.compare(y[0], x[0])
+                : graphe.degre(x[1]) != graphe.degre(y[1]) ? Integer.compare(graphe.degre(y[1]), graphe.degre(x[1]))
+                : Integer.compare(x[1], y[1]));
+        int nombre = 0;
+        for (int c = 0; c < n; c++) {
+            if (graphe.degre(c) > 0) {
+                nombre++;
+                file.add(new int[]{0, c});
+            }
+        }
+        int[] ordre = new int[nombre];
+        for (int i = 0; i < nombre; ) {
+            int[] entree = file.poll();
+            int choisi = entree[1];
+            if (place[choisi] || entree[0] != voisinsOrdonnes[choisi]) continue;
+            ordre[i++] = choisi;
+            place[choisi] = true;
+            for (int j = debut[choisi]; j < debut[choisi + 1]; j++) {
+                int v = voisins[j];
+                if (!place[v]) file.add(new int[]{++voisinsOrdonnes[v], v});
+            }
+        }
+        return ordre;
+    }
+
+    /**
+     * Parcours en profondeur : à chaque profondeur, le colon tiré essaie tour à tour les ressources libres
+     * dans l'ordre de ses préférences, chaque essai ouvrant le nœud de la profondeur suivante.
+     */
+    private void explorer() {
+        if (!ouvrir(0)) return;
+        int profondeur = 0;
+        while (true) {
+            int colon = ordre[profondeur];
+            int[] prefs = preferences[colon];
+            if (essayee[profondeur] != -1) {
+                desaffecter(colon, essayee[profondeur], marque[profondeur]);
+                essayee[profondeur] = -1;
+                if (meilleurCout <= objectif || interrompu) essai[profondeur] = prefs.length;
+            }
+            int k = essai[profondeur];
+            while (k < prefs.length && !libre[prefs[k]]) k++;
+            if (k < prefs.length) {
+                essai[profondeur] = k + 1;
+                essayee[profondeur] = prefs[k];
+                marque[profondeur] = taillePile;
+                affecter(colon, prefs[k]);
+                if (ouvrir(profondeur + 1)) profondeur++;
+                continue;
+            }
+            fermer(profondeur);
+            if (profondeur == 0) return;
+            profondeur--;
+        }
+    }
+
+    /**
+     * Évalue le nœud de la profondeur donnée : le coupe, le retient comme solution s'il est complet,
+     * ou tire le colon à y affecter.
+     *
+     * @return {@code true} si le nœud a des ressources à essayer.
+     */
+    private boolean ouvrir(int profondeur) {
+        if (meilleurCout == 0 || interrompu) return false;
+        nombreNoeuds++;
+        if (budget.epuise(nombreNoeuds) || budget.estTermine()) {
+            interrompu = true;
+            return false;
+        }
+
+        if (nombreJaloux + examinerNonAffectes(profondeur) >= meilleurCout) {
+            return false;
+        }
+
+        if (profondeur == ordre.length) {
+            enregistrerSolution();
+            return false;
+        }
+
+        // Le colon le plus contraint passe en tête des colons restants
+        int position = prochain;
+        int colon = ordre[position];
+        ordre[position] = ordre[profondeur];
+        ordre[profondeur] = colon;
+        positionTiree[profondeur] = position;
+        essai[profondeur] = 0;
+        essayee[profondeur] = -1;
+        return true;
+    }
+
+    /**
+     * Remet à sa place le colon tiré à cette profondeur.
+     */
+    private void fermer(int profondeur) {
+        int position = positionTiree[profondeur];
+        int colon = ordre[profondeur];
+        ordre[profondeur] = ordre[position];
+        ordre[position] = colon;
+    }
+
+    private void affecter(int colon, int ressource) {
+        ressourceDe[colon] = ressource;
+        libre[ressource] = false;
+        int[] rangColon = rang[colon];
+        int rangActuel = rangColon[ressource];
+        boolean colonJaloux = false;
+        for (int i = debut[colon]; i < debut[colon + 1]; i++) {
+            int v = voisins[i];
+            int rv = ressourceDe[v];
+            if (rv == -1) continue;
+            if (rangColon[rv] < rangActuel) colonJaloux = true;
+            if (!jaloux[v] && rang[v][ressource] < rang[v][rv]) marquerJaloux(v);
+        }
+        if (colonJaloux) marquerJaloux(colon);
+    }
+
+    private void desaffecter(int colon, int ressource, int marque) {
+        while (taillePile > marque) {
+            jaloux[pileJaloux[--taillePile]] = false;
+            nombreJaloux--;
+        }
+        ressourceDe[colon] = -1;
+        libre[ressource] = true;
+    }
+
+    private void marquerJaloux(int colon) {
+        jaloux[colon] = true;
+        nombreJaloux++;
+        pileJaloux[taillePile++] = colon;
+    }
+
+    /**
+     * Compte les colons non encore affectés qui seront jaloux quoi qu'il arrive : aucune ressource
+     * libre n'est mieux classée, pour eux, que la meilleure ressource détenue par un voisin déjà affecté.
+     * Retient aussi dans {@link #prochain} la position du colon ayant le moins de ressources libres
+     * lui évitant la jalousie (à égalité, le premier dans l'ordre par degré).
+     */
+    private int examinerNonAffectes(int profondeur) {
+        int forces = 0;
+        prochain = profondeur;
+        int minOptions = Integer.MAX_VALUE;
+        for (int i = profondeur; i < ordre.length; i++) {
+            int c = ordre[i];
+            int[] rangColon = rang[c];
+            int seuil = Integer.MAX_VALUE;
+            for (int j = debut[c]; j < debut[c + 1]; j++) {
+                int rv = ressourceDe[voisins[j]];
+                if (rv != -1 && rangColon[rv] < seuil) seuil = rangColon[rv];
+            }
+            if (seuil == Integer.MAX_VALUE) continue;
+            // Inutile de compter au-delà du minimum courant, sauf pour distinguer 0 de 1
+            int limite = Math.max(minOptions, 1);
+            int options = 0;
+            int[] prefs = preferences[c];
+            for (int k = 0; k < seuil && options < limite; k++) {
+                if (libre[prefs[k]]) options++;
+            }
+            if (options == 0) forces++;
+            if (options < minOptions) {
+                minOptions = options;
+                prochain = i;
+            }
+        }
+        return forces;
+    }
+
+    /**
+     * Complète la solution courante avec les colons sans conflit et la retient comme meilleure.
+     */
+    private void enregistrerSolution() {
+        int n = ressourceDe.length;
+        int[] solution = ressourceDe.clone();
+        int prochaineLibre = 0;
+        for (int c = 0; c < n; c++) {
+            if (solution[c] != -1) continue;
+            while (!libre[prochaineLibre]) prochaineLibre++;
+            solution[c] = prochaineLibre++;
+        }
+        meilleure = solution;
+        meilleurCout = nombreJaloux;
+        budget.signalerAmelioration(meilleurCout, meilleure);
+    }
+}
@@ -0,0 +1,194 @@
+package Modele;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Portefeuille de recherches indépendantes lancées en parallèle sur un pool borné.
+ * Chaque recherche enchaîne des tours : un départ glouton dans un ordre de colons aléatoire
+ * (ou la meilleure solution commune, un tour sur deux), puis un recuit simulé ou une recherche
+ * tabou sur une tranche du budget.
+ * <p>
+ * La meilleure solution commune n'est partagée qu'entre les tours : une recherche la publie à la fin de
+ * son tour et ne la lit qu'au départ du suivant. Pendant un tour, le recuit et la recherche tabou ne
+ * comparent leurs solutions qu'à leur propre meilleure, jamais à la commune ; seul l'objectif les arrête
+ * en cours de tour. Il est porté par le budget commun, dont chaque tour dépend : la recherche qui
+ * l'atteint arrête ce budget, et toutes les autres s'interrompent à leur prochaine consultation du budget.
+ */
+public class SolveurPortefeuille {
+    /**
+     * Durée minimale d'un tour, en millisecondes.
+     */
+    private static final long TRANCHE_MIN_MS = 100;
+
+    private final Instance instance;
+    private final int nombreThreads;
+    private final long graine;
+    private final int objectif;
+
+    private final AtomicInteger meilleurCout = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicLong nombreIterations = new AtomicLong();
+    private final AtomicLong nombreEvaluations = new AtomicLong();
+    private int[] meilleure;
+
+    /**
+     * Affectation de départ de la première recherche ({@code null} : affectation gloutonne).
+     */
+    private int[] depart;
+
+    /**
+     * @param instance      instance à résoudre.
+     * @param nombreThreads nombre de recherches menées en parallèle.
+     * @param graine        graine d'où sont dérivées celles des recherches.
+     * @param objectif      coût en dessous duquel il est inutile de chercher (0, ou une borne inférieure).
+     */
+    public SolveurPortefeuille(Instance instance, int nombreThreads, long graine, int objectif) {
+        this.instance = instance;
+        this.nombreThreads = nombreThreads;
+        this.graine = graine;
+        this.objectif = objectif;
+    }
+
+    /**
+     * Lance les recherches et attend qu'elles aient épuisé le budget (ou atteint l'objectif).
+     *
+     * @return la meilleure affectation trouvée.
+     */
+    public Affectation resoudre(Budget budget) {
+        return resoudre(budget, null);
+    }
+
+    /**
+     * Comme {@link #resoudre(Budget)}, la première recherche partant de l'affectation donnée, qui est aussi
+     * la première meilleure solution commune.
+     *
+     * @param depart affectation de départ (non modifiée), ou {@code null} pour l'affectation gloutonne.
+     */
+    public Affectation resoudre(Budget budget, Affectation depart) {
+        if (depart != null) {
+            this.depart = depart.instantane();
+            synchronized (this) {
+                meilleure = this.depart.clone();
+                meilleurCout.set(new EvaluateurCout(instance, new Affectation(meilleure)).cout());
+            }
+        }
+        // L'objectif du budget commun (et celui du budget donné, dont il hérite) vaut aussi pour chaque tour
+        Budget commun = new Budget(budget, 0, 0);
+        commun.fixerObjectif(objectif);
+        ExecutorService pool = Executors.newFixedThreadPool(nombreThreads);
+        try {
+            List<Future<?>> recherches = new ArrayList<>();
+            for (int i = 0; i < nombreThreads; i++) {
+                final int indice = i;
+                recherches.add(pool.submit(() -> rechercher(indice, commun)));
+            }
+            for (Future<?> recherche : recherches) {
+                recherche.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            commun.arreter();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Une recherche du portefeuille a échoué.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        synchronized (this) {
+            return new Affectation(meilleure);
+        }
+    }
+
+    public int meilleurCout() {
+        return meilleurCout.get();
+    }
+
+    public long nombreIterations() {
+        return nombreIterations.get();
+    }
+
+    /**
+     * @return le nombre total de variations de coût évaluées par toutes les recherches.
+     */
+    public long nombreEvaluations() {
+        return nombreEvaluations.get();
+    }
+
+    private void rechercher(int indice, Budget commun) {
+        SplittableRandom aleatoire = new SplittableRandom(graine + 0x9E3779B97F4A7C15L * (indice + 1));
+        long restant = commun.dureeRestanteMillis();
+        long tranche = restant == Long.MAX_VALUE ? 1000 : Math.max(TRANCHE_MIN_MS, restant / 4);
+
+        for (int tour = 0; ; tour++) {
+            Affectation depart;
+            int[] incumbent = tour % 2 == 1 ? copieMeilleure() : null;
+            if (incumbent != null) {
+                depart = new Affectation(incumbent);
+            } else if (indice == 0 && tour == 0 && this.depart != null) {
+                depart = new Affectation(this.depart);
+            } else {
+                // La première recherche part une fois de l'ordre de déclaration, comme la résolution gloutonne
+                depart = Affectation.gloutonne(instance, indice == 0 && tour == 0 ? null : ordreAleatoire(aleatoire));
+            }
+            EvaluateurCout evaluateur = new EvaluateurCout(instance, depart);
+            Budget budgetTour = new Budget(commun, tranche, 0);
+            int cout;
+            if ((indice + tour) % 2 == 0) {
+                RecuitSimule recuit = new RecuitSimule(aleatoire.nextLong());
+                cout = recuit.resoudre(evaluateur, budgetTour);
+                nombreIterations.addAndGet(recuit.nombreIterations());
+            } else {
+                RechercheTabou tabou = new RechercheTabou(aleatoire.nextLong());
+                cout = tabou.resoudre(evaluateur, budgetTour);
+                nombreIterations.addAndGet(tabou.nombreIterations());
+            }
+            nombreEvaluations.addAndGet(evaluateur.nombreEvaluations());
+            proposer(cout, depart, commun);
+
+            // Chaque recherche fait au moins un tour, pour qu'une solution existe toujours
+            if (commun.objectifAtteint(meilleurCout.get()) || commun.estTermine()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retient la solution si elle améliore la meilleure connue, et arrête toutes les recherches
+     * si l'objectif est atteint.
+     */
+    private void proposer(int cout, Affectation solution, Budget commun) {
+        if (cout >= meilleurCout.get()) return;
+        synchronized (this) {
+            if (cout < meilleurCout.get()) {
+                meilleure = solution.instantane();
+                meilleurCout.set(cout);
+            }
+        }
+        if (commun.objectifAtteint(cout)) {
+            commun.arreter();
+        }
+    }
+
+    private synchronized int[] copieMeilleure() {
+        return meilleure == null ? null : meilleure.clone();
+    }
+
+    private int[] ordreAleatoire(SplittableRandom aleatoire) {
+        int n = instance.nombreColons();
+        int[] ordre = new int[n];
+        for (int i = 0; i < n; i++) ordre[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = aleatoire.nextInt(i + 1);
+            int temp = ordre[i];
+            ordre[i] = ordre[j];
+            ordre[j] = temp;
+        }
+        return ordre;
+    }
+}
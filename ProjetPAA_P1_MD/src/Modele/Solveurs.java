@@ -0,0 +1,210 @@
+package Modele;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fabrique des stratégies de résolution. Toutes partent de l'affectation de départ fournie
+ * (le portefeuille n'y fait partir que sa première recherche, et varie les suivantes).
+ * Chacune calcule d'abord la {@link BorneInferieure} de l'instance, la retient comme objectif
+ * du budget pour s'arrêter dès qu'elle est atteinte, et la rapporte dans son résultat.
+ * Chaque résolution est mesurée comme une phase des {@link Metriques}.
+ */
+public final class Solveurs {
+    /**
+     * Noms acceptés par {@link #parNom}.
+     */
+    public static final List<String> NOMS = Collections.unmodifiableList(Arrays.asList(
+            "glouton", "meilleure", "meilleure-parallele", "exacte", "recuit", "tabou", "portefeuille"));
+
+    private Solveurs() {
+    }
+
+    /**
+     * Descente par première amélioration.
+     */
+    public static Solveur premiereAmelioration() {
+        return new Descente("glouton", null, false);
+    }
+
+    /**
+     * Descente par meilleure amélioration.
+     *
+     * @param pool pool d'exploration du voisinage, {@code null} pour le mode séquentiel.
+     */
+    public static Solveur meilleureAmelioration(ForkJoinPool pool) {
+        return new Descente(pool == null ? "meilleure" : "meilleure-parallele", pool, true);
+    }
+
+    /**
+     * Séparation et évaluation, après une descente par meilleure amélioration qui fournit la première borne.
+     */
+    public static Solveur exacte() {
+        return new Exacte();
+    }
+
+    public static Solveur recuit(long graine) {
+        return new Metaheuristique("recuit", graine, false);
+    }
+
+    public static Solveur tabou(long graine) {
+        return new Metaheuristique("tabou", graine, true);
+    }
+
+    /**
+     * @param nombreThreads nombre de recherches menées en parallèle.
+     */
+    public static Solveur portefeuille(int nombreThreads, long graine) {
+        return new Portefeuille(nombreThreads, graine);
+    }
+
+    /**
+     * @param nom           l'un des {@link #NOMS}.
+     * @param graine        graine des stratégies aléatoires.
+     * @param nombreThreads parallélisme du portefeuille.
+     * @return la stratégie, ou {@code null} si le nom est inconnu.
+     */
+    public static Solveur parNom(String nom, long graine, int nombreThreads) {
+        switch (nom) {
+            case "glouton":
+                return premiereAmelioration();
+            case "meilleure":
+                return meilleureAmelioration(null);
+            case "meilleure-parallele":
+                return meilleureAmelioration(ForkJoinPool.commonPool());
+            case "exacte":
+                return exacte();
+            case "recuit":
+                return recuit(graine);
+            case "tabou":
+                return tabou(graine);
+            case "portefeuille":
+                return portefeuille(nombreThreads, graine);
+            default:
+                return null;
+        }
+    }
+
+    private static final class Descente implements Solveur {
+        private final String nom;
+        private final ForkJoinPool pool;
+        private final boolean meilleure;
+
+        Descente(String nom, ForkJoinPool pool, boolean meilleure) {
+            this.nom = nom;
+            this.pool = pool;
+            this.meilleure = meilleure;
+        }
+
+        @Override
+        public String nom() {
+            return nom;
+        }
+
+        @Override
+        public ResultatResolution resoudre(Instance instance, Affectation depart, Budget budget) {
+            Metriques.Mesure phase = Metriques.debut(Metriques.Phase.RECHERCHE);
+            int borne = BorneInferieure.calculer(instance);
+            budget.fixerObjectif(borne);
+            EvaluateurCout evaluateur = new EvaluateurCout(instance, new Affectation(depart.instantane()));
+            int echanges = meilleure
+                    ? new RechercheMeilleureAmelioration(pool).ameliorer(evaluateur, budget)
+                    : new RecherchePremiereAmelioration().ameliorer(evaluateur, budget);
+            ResultatResolution resultat = new ResultatResolution(nom, evaluateur.getAffectation(), evaluateur.cout(),
+                    borne, evaluateur.nombreEvaluations(), echanges, budget.tempsEcouleMillis(), false);
+            return Metriques.finRecherche(phase, instance, resultat);
+        }
+    }
+
+    private static final class Exacte implements Solveur {
+        @Override
+        public String nom() {
+            return "exacte";
+        }
+
+        @Override
+        public ResultatResolution resoudre(Instance instance, Affectation depart, Budget budget) {
+            Metriques.Mesure phase = Metriques.debut(Metriques.Phase.RECHERCHE);
+            int borne = BorneInferieure.calculer(instance);
+            budget.fixerObjectif(borne);
+            EvaluateurCout evaluateur = new EvaluateurCout(instance, new Affectation(depart.instantane()));
+            new RechercheMeilleureAmelioration(null).ameliorer(evaluateur, budget);
+
+            SolveurExact solveur = new SolveurExact(instance, 0);
+            Affectation solution = solveur.resoudre(evaluateur.getAffectation(), budget);
+            // Un nœud de l'arbre compte comme une évaluation
+            ResultatResolution resultat = new ResultatResolution(nom(), solution, solveur.cout(), borne,
+                    evaluateur.nombreEvaluations() + solveur.nombreNoeuds(), solveur.nombreNoeuds(),
+                    budget.tempsEcouleMillis(), solveur.optimaliteProuvee());
+            return Metriques.finRecherche(phase, instance, resultat);
+        }
+    }
+
+    private static final class Metaheuristique implements Solveur {
+        private final String nom;
+        private final long graine;
+        private final boolean tabou;
+
+        Metaheuristique(String nom, long graine, boolean tabou) {
+            this.nom = nom;
+            this.graine = graine;
+            this.tabou = tabou;
+        }
+
+        @Override
+        public String nom() {
+            return nom;
+        }
+
+        @Override
+        public ResultatResolution resoudre(Instance instance, Affectation depart, Budget budget) {
+            Metriques.Mesure phase = Metriques.debut(Metriques.Phase.RECHERCHE);
+            int borne = BorneInferieure.calculer(instance);
+            budget.fixerObjectif(borne);
+            EvaluateurCout evaluateur = new EvaluateurCout(instance, new Affectation(depart.instantane()));
+            int cout;
+            long iterations;
+            if (tabou) {
+                RechercheTabou recherche = new RechercheTabou(graine);
+                cout = recherche.resoudre(evaluateur, budget);
+                iterations = recherche.nombreIterations();
+            } else {
+                RecuitSimule recuit = new RecuitSimule(graine);
+                cout = recuit.resoudre(evaluateur, budget);
+                iterations = recuit.nombreIterations();
+            }
+            ResultatResolution resultat = new ResultatResolution(nom, evaluateur.getAffectation(), cout, borne,
+                    evaluateur.nombreEvaluations(), iterations, budget.tempsEcouleMillis(), false);
+            return Metriques.finRecherche(phase, instance, resultat);
+        }
+    }
+
+    private static final class Portefeuille implements Solveur {
+        private final int nombreThreads;
+        private final long graine;
+
+        Portefeuille(int nombreThreads, long graine) {
+            this.nombreThreads = nombreThreads;
+            this.graine = graine;
+        }
+
+        @Override
+        public String nom() {
+            return "portefeuille";
+        }
+
+        @Override
+        public ResultatResolution resoudre(Instance instance, Affectation depart, Budget budget) {
+            Metriques.Mesure phase = Metriques.debut(Metriques.Phase.RECHERCHE);
+            int borne = BorneInferieure.calculer(instance);
+            budget.fixerObjectif(borne);
+            SolveurPortefeuille portefeuille = new SolveurPortefeuille(instance, nombreThreads, graine, borne);
+            Affectation solution = portefeuille.resoudre(budget, depart);
+            ResultatResolution resultat = new ResultatResolution(nom(), solution, portefeuille.meilleurCout(), borne,
+                    portefeuille.nombreEvaluations(), portefeuille.nombreIterations(), budget.tempsEcouleMillis(), false);
+            return Metriques.finRecherche(phase, instance, resultat);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package Modele;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progression d'une résolution, lisible depuis un autre thread pendant qu'elle se déroule : meilleur coût
+ * et meilleure affectation trouvés, nombre d'améliorations et d'itérations. Les recherches l'alimentent
+ * à travers leur {@link Budget} (voir {@link Budget#suivre}) ; plusieurs threads peuvent y écrire à la fois.
+ */
+public final class SuiviResolution {
+    private final long debut = System.nanoTime();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder ameliorations = new LongAdder();
+    private volatile int meilleurCout = Integer.MAX_VALUE;
+    private int[] meilleure;
+
+    /**
+     * Retient la solution si elle améliore la meilleure connue.
+     *
+     * @param ressourceDe ressources par colon ; le tableau n'est copié que si la solution est retenue.
+     */
+    void proposer(int cout, int[] ressourceDe) {
+        if (cout >= meilleurCout) return;
+        synchronized (this) {
+            if (cout >= meilleurCout) return;
+            meilleure = ressourceDe.clone();
+            meilleurCout = cout;
+        }
+        ameliorations.increment();
+    }
+
+    /**
+     * Retient l'affectation de départ comme première meilleure solution, sans la compter comme une amélioration.
+     */
+    synchronized void depart(int cout, int[] ressourceDe) {
+        if (cout < meilleurCout) {
+            meilleure = ressourceDe.clone();
+            meilleurCout = cout;
+        }
+    }
+
+    void ajouterIterations(long nombre) {
+        iterations.add(nombre);
+    }
+
+    /**
+     * @return le meilleur coût signalé, ou -1 si aucune solution ne l'a encore été.
+     */
+    public int meilleurCout() {
+        int cout = meilleurCout;
+        return cout == Integer.MAX_VALUE ? -1 : cout;
+    }
+
+    /**
+     * @return une copie de la meilleure affectation signalée, ou {@code null} s'il n'y en a pas encore.
+     */
+    public synchronized Affectation meilleureAffectation() {
+        return meilleure == null ? null : new Affectation(meilleure);
+    }
+
+    /**
+     * @return le nombre d'améliorations du meilleur coût signalées.
+     */
+    public long ameliorations() {
+        return ameliorations.sum();
+    }
+
+    /**
+     * @return le nombre approximatif d'itérations effectuées (mouvements évalués ou nœuds explorés),
+     * compté par paquets de 1024.
+     */
+    public long iterations() {
+        return iterations.sum();
+    }
+
+    public long tempsEcouleMillis() {
+        return (System.nanoTime() - debut) / 1_000_000L;
+    }
+
+    public long iterationsParSeconde() {
+        long millis = tempsEcouleMillis();
+        return millis == 0 ? 0 : iterations() * 1000 / millis;
+    }
+}
@@ -0,0 +1,57 @@
+package Modele;
+
+import java.util.*;
+
+/**
+ * Table d'association entre des noms (colons ou ressources) et des identifiants entiers denses 0..n-1.
+ */
+public final class TableNoms {
+    private final String[] noms;
+    private final Map<String, Integer> index;
+
+    /**
+     * Construit la table ; l'identifiant de chaque nom est sa position dans la liste.
+     *
+     * @param noms noms distincts, dans l'ordre de déclaration.
+     */
+    public TableNoms(List<String> noms) {
+        this.noms = noms.toArray(new String[0]);
+        this.index = new HashMap<>(this.noms.length * 2);
+        for (int i = 0; i < this.noms.length; i++) {
+            index.put(this.noms[i], i);
+        }
+    }
+
+    public int taille() {
+        return noms.length;
+    }
+
+    public String nom(int id) {
+        return noms[id];
+    }
+
+    /**
+     * @return l'identifiant du nom, ou -1 s'il est inconnu.
+     */
+    public int id(String nom) {
+        Integer id = index.get(nom);
+        return id == null ? -1 : id;
+    }
+
+    public List<String> noms() {
+        return Collections.unmodifiableList(Arrays.asList(noms));
+    }
+
+    /**
+     * @return {@code true} si le nom est non vide et fait uniquement de lettres et chiffres ASCII, comme l'exige
+     * la grammaire des fichiers texte : aucun délimiteur ({@code , ( ) . :}) ni blanc ne peut y être recopié.
+     */
+    static boolean estNomValide(String nom) {
+        if (nom.isEmpty()) return false;
+        for (int i = 0; i < nom.length(); i++) {
+            char c = nom.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) return false;
+        }
+        return true;
+    }
+}
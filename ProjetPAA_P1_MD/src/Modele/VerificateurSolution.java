@@ -0,0 +1,371 @@
+package Modele;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Vérification d'une solution enregistrée (lignes {@code colon:ressource} écrites par la sauvegarde ou par
+ * {@link ModeBatch}, ou solution binaire) par rapport à son instance : l'affectation doit être une bijection
+ * des colons sur les ressources, et son coût est recalculé en parallèle sur les colons. Pour chaque colon
+ * jaloux, le rapport nomme le voisin en conflit qui détient la ressource qu'il préfère parmi celles de ses voisins.
+ * <p>
+ * Le fichier de solution est lu en flux, ligne à ligne : hormis l'instance, la mémoire utilisée est de
+ * quelques entiers par colon (affectation, ensembles de bits des colons vus et des ressources prises),
+ * quelle que soit la taille du fichier.
+ * <p>
+ * Usage : {@code VerificateurSolution [-cout c] [-details k] [-rapport fichier.csv] [-threads n]
+ * <instance> <solution>} ; {@code -cout} donne le coût annoncé à contrôler, {@code -details} le nombre
+ * de colons jaloux affichés (20 par défaut) et {@code -rapport} un fichier CSV qui les liste tous.
+ * Code de sortie : 0 si la solution est valide (et de coût conforme), 1 sinon, 2 pour un usage incorrect.
+ */
+public class VerificateurSolution {
+    /**
+     * Nombre maximal d'erreurs détaillées ; les suivantes sont seulement comptées.
+     */
+    private static final int ERREURS_AFFICHEES = 20;
+
+    /**
+     * Longueur maximale d'une ligne du fichier de solution, pour borner la mémoire sur un fichier corrompu.
+     */
+    private static final int TAILLE_LIGNE_MAX = 1 << 20;
+
+    private int coutAnnonce = -1;
+    private int details = 20;
+    private String fichierRapport;
+    private int nombreThreads = Runtime.getRuntime().availableProcessors();
+    private String fichierInstance;
+    private String fichierSolution;
+
+    /**
+     * Erreurs trouvées à la lecture : les premières en détail, les autres comptées.
+     */
+    static final class Erreurs {
+        private final List<String> messages = new ArrayList<>();
+        private long nombre;
+
+        void ajouter(String message) {
+            if (messages.size() < ERREURS_AFFICHEES) messages.add(message);
+            nombre++;
+        }
+
+        boolean estVide() {
+            return nombre == 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        VerificateurSolution verificateur = new VerificateurSolution();
+        if (!verificateur.lireArguments(args)) {
+            System.out.println("Usage : VerificateurSolution [-cout c] [-details k] [-rapport fichier.csv] [-threads n]"
+                    + " <instance> <solution>");
+            System.exit(2);
+        }
+        System.exit(verificateur.executer() ? 0 : 1);
+    }
+
+    private boolean lireArguments(String[] args) {
+        List<String> fichiers = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-cout":
+                        coutAnnonce = Integer.parseInt(args[++i]);
+                        break;
+                    case "-details":
+                        details = Integer.parseInt(args[++i]);
+                        break;
+                    case "-rapport":
+                        fichierRapport = args[++i];
+                        break;
+                    case "-threads":
+                        nombreThreads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("-")) {
+                            System.out.println("Option inconnue : " + args[i]);
+                            return false;
+                        }
+                        fichiers.add(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            System.out.println("Valeur d'option manquante ou incorrecte.");
+            return false;
+        }
+        if (fichiers.size() != 2 || details < 0 || nombreThreads <= 0) return false;
+        fichierInstance = fichiers.get(0);
+        fichierSolution = fichiers.get(1);
+        return true;
+    }
+
+    private boolean executer() {
+        Instance instance;
+        if (FormatBinaire.estInstanceBinaire(fichierInstance)) {
+            try {
+                instance = FormatBinaire.lireInstance(fichierInstance);
+            } catch (IOException e) {
+                System.out.println(fichierInstance + " : " + e.getMessage());
+                return false;
+            }
+        } else {
+            instance = new LecteurColonie().lire(fichierInstance);
+        }
+        if (instance == null) {
+            System.out.println(fichierInstance + " : erreur de lecture de l'instance");
+            return false;
+        }
+        int n = instance.nombreColons();
+
+        long debut = System.nanoTime();
+        Erreurs erreurs = new Erreurs();
+        int[] ressourceDe;
+        try {
+            ressourceDe = lire(instance, fichierSolution, erreurs);
+        } catch (IOException e) {
+            System.out.println(fichierSolution + " : " + e.getMessage());
+            return false;
+        }
+        long lecture = (System.nanoTime() - debut) / 1_000_000;
+        if (!erreurs.estVide()) {
+            System.out.println("Solution " + fichierSolution + " invalide : " + erreurs.nombre + " erreur(s).");
+            for (String message : erreurs.messages) {
+                System.out.println("  " + message);
+            }
+            if (erreurs.nombre > erreurs.messages.size()) {
+                System.out.println("  ... et " + (erreurs.nombre - erreurs.messages.size()) + " autre(s).");
+            }
+            return false;
+        }
+        System.out.println("Solution " + fichierSolution + " : " + n + " colons, affectation bijective (lue en " + lecture + " ms).");
+
+        debut = System.nanoTime();
+        int[] envie;
+        ForkJoinPool pool = new ForkJoinPool(nombreThreads);
+        try {
+            envie = pool.submit(() -> voisinsEnvies(instance, ressourceDe)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            System.out.println("Échec du calcul du coût : " + e.getCause());
+            return false;
+        } finally {
+            pool.shutdown();
+        }
+        int cout = 0;
+        for (int v : envie) {
+            if (v != -1) cout++;
+        }
+        long calcul = (System.nanoTime() - debut) / 1_000_000;
+        System.out.println("Coût : " + cout + " colon(s) jaloux (calculé en " + calcul + " ms sur " + nombreThreads + " thread(s)).");
+
+        afficherJaloux(instance, ressourceDe, envie, cout);
+        if (fichierRapport != null) {
+            try {
+                ecrireRapport(instance, ressourceDe, envie);
+                System.out.println("Rapport écrit dans " + fichierRapport);
+            } catch (IOException e) {
+                System.out.println("Erreur lors de l'écriture du rapport : " + e.getMessage());
+                return false;
+            }
+        }
+        if (coutAnnonce >= 0) {
+            if (coutAnnonce != cout) {
+                System.out.println("Coût annoncé " + coutAnnonce + " NON conforme (coût réel " + cout + ").");
+                return false;
+            }
+            System.out.println("Coût annoncé " + coutAnnonce + " conforme.");
+        }
+        return true;
+    }
+
+    /**
+     * Lit une solution texte ou binaire. La bijection est vérifiée au fil de la lecture avec deux ensembles
+     * de bits (colons déjà affectés, ressources déjà prises).
+     *
+     * @param erreurs reçoit les lignes incorrectes, les doublons et les colons sans ressource.
+     * @return la ressource de chaque colon (-1 si aucune) ; n'a de sens que si {@code erreurs} est resté vide.
+     * @throws IOException si le fichier est illisible.
+     */
+    static int[] lire(Instance instance, String fichier, Erreurs erreurs) throws IOException {
+        int n = instance.nombreColons();
+        if (FormatBinaire.estSolutionBinaire(fichier)) {
+            int[] ressourceDe = FormatBinaire.lireSolution(fichier).instantane();
+            if (ressourceDe.length != n) {
+                erreurs.ajouter("la solution affecte " + ressourceDe.length + " colons, l'instance en a " + n + ".");
+            }
+            return ressourceDe;
+        }
+
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        int[] ressourceDe = new int[n];
+        Arrays.fill(ressourceDe, -1);
+        BitSet colonsVus = new BitSet(n);
+        BitSet ressourcesPrises = new BitSet(n);
+        try (InputStream entree = Files.newInputStream(Paths.get(fichier))) {
+            byte[] tampon = new byte[1 << 16];
+            byte[] ligne = new byte[256];
+            int longueur = 0;
+            long numeroLigne = 0;
+            boolean tronquee = false;
+            int lus;
+            while ((lus = entree.read(tampon)) != -1) {
+                for (int i = 0; i < lus; i++) {
+                    byte octet = tampon[i];
+                    if (octet != '\n') {
+                        if (longueur == ligne.length) {
+                            if (longueur >= TAILLE_LIGNE_MAX) {
+                                tronquee = true;
+                                continue;
+                            }
+                            ligne = Arrays.copyOf(ligne, Math.min(2 * longueur, TAILLE_LIGNE_MAX));
+                        }
+                        ligne[longueur++] = octet;
+                        continue;
+                    }
+                    numeroLigne++;
+                    finirLigne(ligne, longueur, tronquee, numeroLigne, colons, ressources, ressourceDe, colonsVus,
+                            ressourcesPrises, erreurs);
+                    longueur = 0;
+                    tronquee = false;
+                }
+            }
+            if (longueur > 0 || tronquee) {
+                finirLigne(ligne, longueur, tronquee, numeroLigne + 1, colons, ressources, ressourceDe, colonsVus,
+                        ressourcesPrises, erreurs);
+            }
+        }
+
+        int manquants = n - colonsVus.cardinality();
+        if (manquants > 0) {
+            int premier = colonsVus.nextClearBit(0);
+            erreurs.ajouter(manquants + " colon(s) sans ressource, dont '" + colons.nom(premier) + "'.");
+        }
+        return ressourceDe;
+    }
+
+    private static void finirLigne(byte[] ligne, int longueur, boolean tronquee, long numeroLigne, TableNoms colons,
+                                   TableNoms ressources, int[] ressourceDe, BitSet colonsVus, BitSet ressourcesPrises,
+                                   Erreurs erreurs) {
+        if (tronquee) {
+            erreurs.ajouter("ligne " + numeroLigne + " : plus de " + TAILLE_LIGNE_MAX + " octets.");
+            return;
+        }
+        analyserLigne(new String(ligne, 0, longueur, StandardCharsets.UTF_8).trim(), numeroLigne, colons, ressources,
+                ressourceDe, colonsVus, ressourcesPrises, erreurs);
+    }
+
+    private static void analyserLigne(String ligne, long numeroLigne, TableNoms colons, TableNoms ressources,
+                                      int[] ressourceDe, BitSet colonsVus, BitSet ressourcesPrises, Erreurs erreurs) {
+        if (ligne.isEmpty()) return;
+        int deuxPoints = ligne.indexOf(':');
+        if (deuxPoints < 0) {
+            erreurs.ajouter("ligne " + numeroLigne + " : format attendu colon:ressource.");
+            return;
+        }
+        String nomColon = ligne.substring(0, deuxPoints).trim();
+        String nomRessource = ligne.substring(deuxPoints + 1).trim();
+        int c = colons.id(nomColon);
+        int r = ressources.id(nomRessource);
+        if (c == -1) {
+            erreurs.ajouter("ligne " + numeroLigne + " : colon inconnu '" + nomColon + "'.");
+            return;
+        }
+        if (r == -1) {
+            erreurs.ajouter("ligne " + numeroLigne + " : ressource inconnue '" + nomRessource + "'.");
+            return;
+        }
+        if (colonsVus.get(c)) {
+            erreurs.ajouter("ligne " + numeroLigne + " : colon '" + nomColon + "' déjà affecté.");
+            return;
+        }
+        if (ressourcesPrises.get(r)) {
+            erreurs.ajouter("ligne " + numeroLigne + " : ressource '" + nomRessource + "' déjà attribuée.");
+            return;
+        }
+        colonsVus.set(c);
+        ressourcesPrises.set(r);
+        ressourceDe[c] = r;
+    }
+
+    /**
+     * Pour chaque colon, en parallèle, cherche parmi ses voisins en conflit celui qui détient la ressource
+     * qu'il préfère, si elle est mieux classée que la sienne. La somme des colons jaloux est le coût.
+     *
+     * @param ressourceDe affectation bijective.
+     * @return pour chaque colon, le voisin envié, ou -1 si le colon n'est pas jaloux.
+     */
+    static int[] voisinsEnvies(Instance instance, int[] ressourceDe) {
+        Metriques.Mesure phase = Metriques.debut(Metriques.Phase.CALCUL_COUT);
+        int[][] rang = instance.matriceRangs();
+        int[] debut = instance.getConflits().debuts();
+        int[] voisins = instance.getConflits().voisins();
+        int[] envie = new int[ressourceDe.length];
+        IntStream.range(0, ressourceDe.length).parallel().forEach(c -> {
+            int[] rangColon = rang[c];
+            int meilleurRang = rangColon[ressourceDe[c]];
+            int envieDe = -1;
+            for (int i = debut[c]; i < debut[c + 1]; i++) {
+                int rangVoisin = rangColon[ressourceDe[voisins[i]]];
+                if (rangVoisin < meilleurRang) {
+                    meilleurRang = rangVoisin;
+                    envieDe = voisins[i];
+                }
+            }
+            envie[c] = envieDe;
+        });
+        Metriques.fin(phase, "verification", ressourceDe.length, -1);
+        return envie;
+    }
+
+    private void afficherJaloux(Instance instance, int[] ressourceDe, int[] envie, int cout) {
+        if (cout == 0 || details == 0) return;
+        System.out.println(cout > details ? "Colons jaloux (les " + details + " premiers) :" : "Colons jaloux :");
+        int affiches = 0;
+        for (int c = 0; c < envie.length && affiches < details; c++) {
+            if (envie[c] == -1) continue;
+            System.out.println("  " + description(instance, ressourceDe, c, envie[c]));
+            affiches++;
+        }
+    }
+
+    private static String description(Instance instance, int[] ressourceDe, int c, int voisin) {
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        return colons.nom(c) + " (" + ressources.nom(ressourceDe[c]) + ", rang " + (instance.rang(c, ressourceDe[c]) + 1)
+                + ") jaloux de " + colons.nom(voisin) + " (" + ressources.nom(ressourceDe[voisin]) + ", rang "
+                + (instance.rang(c, ressourceDe[voisin]) + 1) + " pour " + colons.nom(c) + ")";
+    }
+
+    /**
+     * Écrit un colon jaloux par ligne : colon, sa ressource et son rang, voisin envié, ressource de ce voisin
+     * et son rang pour le colon (rangs à partir de 1).
+     */
+    private void ecrireRapport(Instance instance, int[] ressourceDe, int[] envie) throws IOException {
+        TableNoms colons = instance.getColons();
+        TableNoms ressources = instance.getRessources();
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(fichierRapport), StandardCharsets.UTF_8)) {
+            writer.write("colon,ressource,rang,voisin,ressource_voisin,rang_ressource_voisin");
+            writer.newLine();
+            for (int c = 0; c < envie.length; c++) {
+                int v = envie[c];
+                if (v == -1) continue;
+                writer.write(colons.nom(c) + "," + ressources.nom(ressourceDe[c]) + "," + (instance.rang(c, ressourceDe[c]) + 1)
+                        + "," + colons.nom(v) + "," + ressources.nom(ressourceDe[v]) + "," + (instance.rang(c, ressourceDe[v]) + 1));
+                writer.newLine();
+            }
+        }
+    }
+}